@@ -0,0 +1,55 @@
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-element overhead of each Reactor/RxJava adapter pair of {@link Part08Adapt}, compared with the generic
+ * adaptation it replaced.
+ * <p>
+ * Observable sources are measured both fusable (Observable.fromIterable, pulled on demand by the bridge) and
+ * behind hide(), which disables fusion and exercises the push fast path.
+ * <p>
+ * Run with {@code mvn -Pbench compile} then {@code java -cp target/classes:<deps> AdapterBenchmark [elements]}.
+ */
+public class AdapterBenchmark {
+
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long MEASUREMENT_MILLIS = 2_000;
+
+    public static void main(String[] args) {
+        int n = BenchmarkHarness.intArg(args, 0, 100_000);
+        List<User> users = PipelineBenchmarks.users(n);
+        Part08Adapt part08 = new Part08Adapt();
+
+        run("observableToFlux BUFFER / fusable", n,
+                () -> Flux.from(Observable.fromIterable(users).toFlowable(BackpressureStrategy.BUFFER)));
+        run("observableToFlux bridge / fusable", n,
+                () -> part08.fromObservableToFlux(Observable.fromIterable(users)));
+        run("observableToFlux BUFFER / hidden", n,
+                () -> Flux.from(Observable.fromIterable(users).hide().toFlowable(BackpressureStrategy.BUFFER)));
+        run("observableToFlux bridge / hidden", n,
+                () -> part08.fromObservableToFlux(Observable.fromIterable(users).hide()));
+
+        run("singleToMono toFlowable", n,
+                () -> Flux.fromIterable(users).concatMap(user -> Mono.from(Single.just(user).toFlowable())));
+        run("singleToMono bridge", n,
+                () -> Flux.fromIterable(users).concatMap(user -> part08.fromSingleToMono(Single.just(user))));
+
+        run("flowableToFlux Flux.from / just", n,
+                () -> Flux.fromIterable(users).concatMap(user -> Flux.from(Flowable.just(user))));
+        run("flowableToFlux adapter / just", n,
+                () -> Flux.fromIterable(users).concatMap(user -> part08.fromFlowableToFlux(Flowable.just(user))));
+        run("fluxToFlowableToFlux", n,
+                () -> part08.fromFlowableToFlux(part08.fromFluxToFlowable(Flux.fromIterable(users))));
+    }
+
+    private static void run(String name, int n, Supplier<Flux<User>> pipeline) {
+        BenchmarkHarness.measureFor(name, WARMUP_MILLIS, MEASUREMENT_MILLIS, n, () -> pipeline.get().blockLast());
+    }
+}
@@ -0,0 +1,120 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Minimal benchmark loop for the workshop pipelines.
+ * <p>
+ * JMH cannot be used here: its generated code must import the benchmark class, and every class of this
+ * project lives in the unnamed package. The harness therefore does the same basic work by hand: warm-up
+ * iterations, timed measurement iterations, and allocated bytes per operation read from HotSpot's
+ * per-thread allocation counters (summed over all live threads, so work done on scheduler threads counts).
+ */
+final class BenchmarkHarness {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkHarness() {
+    }
+
+    static Result measure(String name, int warmupIterations, int measurementIterations, long opsPerIteration,
+                          Runnable iteration) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration.run();
+        }
+        System.gc();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < measurementIterations; i++) {
+            iteration.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long ops = opsPerIteration * measurementIterations;
+        Result result = new Result(name, ops * 1_000_000_000d / elapsed, (double) allocated / ops,
+                allocated * 1_000_000_000d / elapsed);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Like {@link #measure}, but repeats the iteration until each phase has lasted at least the given time,
+     * which keeps short iterations from being dominated by timer resolution and JIT noise.
+     */
+    static Result measureFor(String name, long warmupMillis, long measurementMillis, long opsPerIteration,
+                             Runnable iteration) {
+        long warmupEnd = System.nanoTime() + warmupMillis * 1_000_000;
+        while (System.nanoTime() < warmupEnd) {
+            iteration.run();
+        }
+        System.gc();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long measurementEnd = start + measurementMillis * 1_000_000;
+        long iterations = 0;
+        long now;
+        do {
+            iteration.run();
+            iterations++;
+            now = System.nanoTime();
+        } while (now < measurementEnd);
+        long elapsed = now - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long ops = opsPerIteration * iterations;
+        Result result = new Result(name, ops * 1_000_000_000d / elapsed, (double) allocated / ops,
+                allocated * 1_000_000_000d / elapsed);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * @return bytes allocated so far by all live threads
+     */
+    static long allocatedBytes() {
+        long total = 0;
+        for (long allocated : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    static final class Result {
+
+        private final String name;
+        private final double opsPerSecond;
+        private final double bytesPerOp;
+        private final double allocationRate;
+
+        Result(String name, double opsPerSecond, double bytesPerOp, double allocationRate) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+            this.allocationRate = allocationRate;
+        }
+
+        double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+
+        double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "\"%s\",%.1f,%.1f,%.1f", name, opsPerSecond, bytesPerOp,
+                    allocationRate / (1024 * 1024));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-72s %14.1f ops/s %10.1f B/op %10.1f MB/s",
+                    name, opsPerSecond, bytesPerOp, allocationRate / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Compares the blocking bridges {@link Part11BlockingToReactive#blockingRepositoryToFlux} can run on when many
+ * subscriptions are blocked in the repository at the same time.
+ * <p>
+ * Each round subscribes {@code subscriptions} times to that method, with a repository that blocks for
+ * {@code blockMillis}, and reports throughput together with the peak platform thread count and peak heap usage
+ * seen while the subscriptions were in flight. The bridges are the default bounded one, whose rejections show up
+ * as failures, one wide enough to give every subscription its own platform thread, and virtual threads.
+ * <p>
+ * Run with {@code mvn -Pbench compile} then
+ * {@code java -cp target/classes:<deps> BlockingBridgeBenchmark [subscriptions] [blockMillis] [rounds]};
+ * the virtual-thread bridge is skipped on JVMs older than 21.
+ */
+public class BlockingBridgeBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int subscriptions = BenchmarkHarness.intArg(args, 0, 10_000);
+        int blockMillis = BenchmarkHarness.intArg(args, 1, 10);
+        int rounds = BenchmarkHarness.intArg(args, 2, 3);
+
+        Map<String, Supplier<Part11BlockingToReactive>> bridges = new LinkedHashMap<>();
+        bridges.put("bounded", Part11BlockingToReactive::new);
+        bridges.put("platform", () -> new Part11BlockingToReactive(
+                new BlockingBridgeScheduler("bench-platform", subscriptions, subscriptions,
+                        BlockingBridgeScheduler.RejectionPolicy.ABORT),
+                BlockingBridgeScheduler.withDefaults("bench-platform-writes")));
+        if (VirtualThreads.isSupported()) {
+            bridges.put("virtual", Part11BlockingToReactive::onVirtualThreads);
+        } else {
+            System.out.println("virtual threads unavailable on Java " + System.getProperty("java.version"));
+        }
+
+        BlockingRepository<User> repository = new SleepingRepository(blockMillis);
+        for (Map.Entry<String, Supplier<Part11BlockingToReactive>> entry : bridges.entrySet()) {
+            Part11BlockingToReactive part11 = entry.getValue().get();
+            try {
+                for (int round = 0; round < rounds; round++) {
+                    run(entry.getKey(), part11, repository, subscriptions);
+                }
+            } finally {
+                part11.dispose();
+            }
+        }
+    }
+
+    private static void run(String name, Part11BlockingToReactive part11, BlockingRepository<User> repository,
+                            int subscriptions) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        AtomicLong peakHeap = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(subscriptions);
+        AtomicLong failures = new AtomicLong();
+
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < subscriptions; i++) {
+            part11.blockingRepositoryToFlux(repository)
+                    .subscribe(user -> { }, error -> {
+                        failures.incrementAndGet();
+                        done.countDown();
+                    }, done::countDown);
+        }
+        done.await(10, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        sampler.interrupt();
+
+        System.out.println(String.format(Locale.ROOT,
+                "%-16s %7d subscriptions %10.1f subs/s  peak threads %6d  peak heap %8.1f MB  failures %d",
+                name, subscriptions, subscriptions * 1_000_000_000d / elapsed, threads.getPeakThreadCount(),
+                peakHeap.get() / (1024d * 1024d), failures.get()));
+    }
+
+    private static final class SleepingRepository implements BlockingRepository<User> {
+
+        private final List<User> users;
+        private final int blockMillis;
+
+        SleepingRepository(int blockMillis) {
+            this.blockMillis = blockMillis;
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                users.add(new User("first" + i, "last" + i, "user" + i));
+            }
+            this.users = Collections.unmodifiableList(users);
+        }
+
+        @Override
+        public List<User> findAll() {
+            try {
+                Thread.sleep(blockMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return users;
+        }
+
+        @Override
+        public void save(User user) {
+        }
+    }
+}
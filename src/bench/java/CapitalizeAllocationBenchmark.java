@@ -0,0 +1,45 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Bytes allocated per element by {@link Part04Transform#capitalizeMany}, before and after {@link UserCapitalizer}.
+ * <p>
+ * "before" is the former map, allocating three uppercased Strings and a User per element; "after" is the current
+ * Part04 pipeline. Each is run over three datasets: users already in uppercase, a few hot usernames repeated,
+ * and users that are all distinct.
+ * <p>
+ * Run with {@code mvn -Pbench compile} then
+ * {@code java -cp target/classes:<deps> CapitalizeAllocationBenchmark [elements]}.
+ */
+public class CapitalizeAllocationBenchmark {
+
+    public static void main(String[] args) {
+        int elements = BenchmarkHarness.intArg(args, 0, 100_000);
+
+        List<User> uppercase = new ArrayList<>(elements);
+        List<User> hot = new ArrayList<>(elements);
+        List<User> distinct = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            uppercase.add(new User("WALTER" + i, "WHITE", "WWHITE" + i));
+            hot.add(new User("jesse" + (i % 16), "pinkman", "jpinkman" + (i % 16)));
+            distinct.add(new User("skyler" + i, "white", "swhite" + i));
+        }
+
+        Part04Transform part04 = new Part04Transform();
+        run("uppercase", uppercase, part04);
+        run("hot", hot, part04);
+        run("distinct", distinct, part04);
+    }
+
+    private static void run(String dataset, List<User> users, Part04Transform part04) {
+        BenchmarkHarness.measure("capitalizeMany before / " + dataset, 5, 10, users.size(),
+                () -> Flux.fromIterable(users)
+                        .map(user -> new User(user.getFirstname().toUpperCase(), user.getLastname().toUpperCase(),
+                                user.getUsername().toUpperCase()))
+                        .blockLast());
+        BenchmarkHarness.measure("capitalizeMany after  / " + dataset, 5, 10, users.size(),
+                () -> part04.capitalizeMany(Flux.fromIterable(users)).blockLast());
+    }
+}
@@ -0,0 +1,55 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Round-trips and throughput of {@link Part04Transform} async capitalisation against a
+ * {@link StubCapitalizeService} with a fixed round-trip latency: one call per user
+ * ({@link Part04Transform#asyncCapitalizeMany(Flux, int, boolean)}) against micro-batched calls
+ * ({@link Part04Transform#asyncCapitalizeManyInBatches(Flux, int, Duration, int)}), both ordered and with the same
+ * number of calls in flight.
+ * <p>
+ * Run with {@code mvn -Pbench compile} then
+ * {@code java -cp target/classes:<deps> CapitalizeBatchingBenchmark [elements] [roundTripMillis] [maxInFlight]}.
+ */
+public class CapitalizeBatchingBenchmark {
+
+    private static final int BATCH_SIZE = 64;
+    private static final Duration LATENCY_BUDGET = Duration.ofMillis(5);
+    private static final Duration PER_USER_COST = Duration.ofNanos(10_000);
+
+    public static void main(String[] args) {
+        int elements = BenchmarkHarness.intArg(args, 0, 10_000);
+        int roundTripMillis = BenchmarkHarness.intArg(args, 1, 2);
+        int maxInFlight = BenchmarkHarness.intArg(args, 2, 16);
+
+        List<User> users = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            users.add(new User("skyler" + i, "white", "swhite" + i));
+        }
+
+        StubCapitalizeService perUserService = new StubCapitalizeService(Duration.ofMillis(roundTripMillis),
+                PER_USER_COST);
+        Part04Transform perUser = new Part04Transform(perUserService);
+        run("per-user calls", perUserService, elements,
+                () -> perUser.asyncCapitalizeMany(Flux.fromIterable(users), maxInFlight, true).blockLast());
+
+        StubCapitalizeService batchService = new StubCapitalizeService(Duration.ofMillis(roundTripMillis),
+                PER_USER_COST);
+        Part04Transform batched = new Part04Transform(batchService);
+        run("micro-batched calls (" + BATCH_SIZE + ")", batchService, elements,
+                () -> batched.asyncCapitalizeManyInBatches(Flux.fromIterable(users), BATCH_SIZE, LATENCY_BUDGET,
+                        maxInFlight).blockLast());
+    }
+
+    private static void run(String name, StubCapitalizeService service, int elements, Runnable pipeline) {
+        BenchmarkHarness.Result result = BenchmarkHarness.measure(name, 1, 3, elements, pipeline);
+        long before = service.calls();
+        pipeline.run();
+        System.out.printf(Locale.ROOT, "%s: %d round-trips for %d users, %.0f users/s%n", name, service.calls() - before,
+                elements, result.getOpsPerSecond());
+    }
+}
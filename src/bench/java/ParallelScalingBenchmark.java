@@ -0,0 +1,67 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Throughput of capitalizeMany against the number of rails, for {@link Part04Transform#capitalizeManyParallel}
+ * ("part04", a cheap transform) and for the same capitalization followed by {@code work} iterations of busy
+ * arithmetic per user ("heavy"), each unordered and ordered. "sequential" is the plain map on the subscribing
+ * thread, for reference.
+ * <p>
+ * Rails run on a parallel scheduler sized to the largest rail count, so that counts above the number of cores show
+ * the cost of oversubscription rather than being capped.
+ * <p>
+ * Run with {@code mvn -Pbench compile} then
+ * {@code java -cp target/classes:<deps> ParallelScalingBenchmark [elements] [work] [maxRails]}.
+ */
+public class ParallelScalingBenchmark {
+
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+        int elements = BenchmarkHarness.intArg(args, 0, 200_000);
+        int work = BenchmarkHarness.intArg(args, 1, 2_000);
+        int maxRails = BenchmarkHarness.intArg(args, 2, Runtime.getRuntime().availableProcessors());
+
+        List<User> users = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            users.add(new User("skyler" + i, "white", "swhite" + i));
+        }
+        Part04Transform part04 = new Part04Transform();
+        UserCapitalizer capitalizer = new UserCapitalizer();
+        Function<User, User> heavy = user -> {
+            User capitalized = capitalizer.capitalize(user);
+            long h = capitalized.getUsername().hashCode();
+            for (int i = 0; i < work; i++) {
+                h = h * 6364136223846793005L + 1442695040888963407L;
+            }
+            sink = h;
+            return capitalized;
+        };
+
+        Scheduler scheduler = Schedulers.newParallel("rails", maxRails);
+        try {
+            BenchmarkHarness.measure("part04 sequential", 3, 5, elements,
+                    () -> part04.capitalizeMany(Flux.fromIterable(users)).blockLast());
+            BenchmarkHarness.measure("heavy sequential", 3, 5, elements,
+                    () -> Flux.fromIterable(users).map(heavy).blockLast());
+            for (int rails = 1; rails <= maxRails; rails = rails < maxRails && rails * 2 > maxRails ? maxRails : rails * 2) {
+                int n = rails;
+                for (boolean ordered : new boolean[]{false, true}) {
+                    String mode = ordered ? "ordered" : "unordered";
+                    BenchmarkHarness.measure("part04 " + mode + " rails=" + n, 3, 5, elements,
+                            () -> part04.capitalizeManyParallel(Flux.fromIterable(users), n, ordered).blockLast());
+                    BenchmarkHarness.measure("heavy " + mode + " rails=" + n, 3, 5, elements,
+                            () -> ParallelRails.map(Flux.fromIterable(users), heavy, n, scheduler, ordered)
+                                    .blockLast());
+                }
+            }
+        } finally {
+            scheduler.dispose();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Throughput and allocation of the workshop pipelines, for regression gating.
+ * <p>
+ * Every benchmark drains a pipeline of {@code n} users, warmed up for one second then measured for two, and is
+ * reported as elements per second and bytes allocated per element. Each one runs for every element count and every
+ * scheduler given on the command line; the scheduler is inserted with publishOn at the end of the chain
+ * ({@code immediate} keeps the pipeline on the subscribing thread), except for the Part11 bridges, which always run
+ * on their own blocking bridge.
+ * <p>
+ * Run with {@code mvn -Pbench compile} then
+ * {@code java -cp target/classes:<deps> PipelineBenchmarks [counts] [schedulers] [csvFile]}, for example
+ * {@code PipelineBenchmarks 1000,100000 immediate,parallel results.csv}.
+ */
+public class PipelineBenchmarks {
+
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long MEASUREMENT_MILLIS = 2_000;
+
+    public static void main(String[] args) throws IOException {
+        int[] counts = Arrays.stream((args.length > 0 ? args[0] : "1000,100000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        String[] schedulerNames = (args.length > 1 ? args[1] : "immediate,parallel,boundedElastic").split(",");
+
+        List<BenchmarkHarness.Result> results = new ArrayList<>();
+        Part11BlockingToReactive part11 = new Part11BlockingToReactive();
+        try {
+            for (int n : counts) {
+                List<User> users = users(n);
+                for (String schedulerName : schedulerNames) {
+                    Scheduler scheduler = scheduler(schedulerName);
+                    for (Map.Entry<String, Supplier<Flux<?>>> benchmark
+                            : benchmarks(users, scheduler, part11).entrySet()) {
+                        String name = String.format(Locale.ROOT, "%s [n=%d, scheduler=%s]", benchmark.getKey(), n,
+                                schedulerName);
+                        results.add(BenchmarkHarness.measureFor(name, WARMUP_MILLIS, MEASUREMENT_MILLIS, n,
+                                () -> benchmark.getValue().get().blockLast()));
+                    }
+                }
+            }
+        } finally {
+            part11.dispose();
+        }
+        if (args.length > 2) {
+            writeCsv(args[2], results);
+        }
+    }
+
+    private static Map<String, Supplier<Flux<?>>> benchmarks(List<User> users, Scheduler scheduler,
+                                                             Part11BlockingToReactive part11) {
+        Function<Flux<?>, Flux<?>> on = flux -> scheduler == Schedulers.immediate() ? flux : flux.publishOn(scheduler);
+        int n = users.size();
+        List<User> firstHalf = users.subList(0, n / 2);
+        List<User> secondHalf = users.subList(n / 2, n);
+
+        Part01FluxLearnHowToCreateFluxInstances part01 = new Part01FluxLearnHowToCreateFluxInstances();
+        Part04Transform part04 = new Part04Transform();
+        Part05Merge part05 = new Part05Merge();
+        Part08Adapt part08 = new Part08Adapt();
+        Part09OtherOperations part09 = new Part09OtherOperations();
+        InMemoryBlockingRepository blockingRepository = new InMemoryBlockingRepository(users);
+
+        Map<String, Supplier<Flux<?>>> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("part01.fromIterable", () -> on.apply(Flux.fromIterable(users)));
+        benchmarks.put("part01.fooBarFluxFromValues", () -> on.apply(Flux.range(0, n / 2)
+                .concatMap(i -> part01.fooBarFluxFromValues())));
+
+        benchmarks.put("part04.capitalizeMany", () -> on.apply(part04.capitalizeMany(Flux.fromIterable(users))));
+        benchmarks.put("part04.asyncCapitalizeMany", () -> on.apply(part04.asyncCapitalizeMany(
+                Flux.fromIterable(users))));
+        benchmarks.put("part04.asyncCapitalizeMany.ordered", () -> on.apply(part04.asyncCapitalizeMany(
+                Flux.fromIterable(users), 32, true)));
+
+        benchmarks.put("part05.mergeWithInterleave", () -> on.apply(part05.mergeFluxWithInterleave(
+                Flux.fromIterable(firstHalf), Flux.fromIterable(secondHalf))));
+        benchmarks.put("part05.mergeWithNoInterleave", () -> on.apply(part05.mergeFluxWithNoInterleave(
+                Flux.fromIterable(firstHalf), Flux.fromIterable(secondHalf))));
+
+        benchmarks.put("part08.fluxToFlowableToFlux", () -> on.apply(part08.fromFlowableToFlux(
+                part08.fromFluxToFlowable(Flux.fromIterable(users)))));
+        benchmarks.put("part08.observableToFlux", () -> on.apply(part08.fromObservableToFlux(
+                Observable.fromIterable(users))));
+        benchmarks.put("part08.flowableToFlux", () -> on.apply(part08.fromFlowableToFlux(
+                Flowable.fromIterable(users))));
+        benchmarks.put("part08.singleToMono", () -> on.apply(Flux.fromIterable(users)
+                .concatMap(user -> part08.fromSingleToMono(Single.just(user)))));
+        benchmarks.put("part08.monoToCompletableFutureToMono", () -> on.apply(Flux.fromIterable(users)
+                .concatMap(user -> part08.fromCompletableFutureToMono(
+                        part08.fromMonoToCompletableFuture(Mono.just(user))))));
+
+        benchmarks.put("part09.userFluxFromStringFlux", () -> on.apply(part09.userFluxFromStringFlux(
+                Flux.fromIterable(users).map(User::getUsername),
+                Flux.fromIterable(users).map(User::getFirstname),
+                Flux.fromIterable(users).map(User::getLastname))));
+
+        benchmarks.put("part11.blockingRepositoryToFlux", () -> part11.blockingRepositoryToFlux(blockingRepository));
+        benchmarks.put("part11.blockingRepositoryToStreamingFlux",
+                () -> part11.blockingRepositoryToStreamingFlux(blockingRepository));
+        benchmarks.put("part11.fluxToBlockingRepository", () -> part11.fluxToBlockingRepository(
+                Flux.fromIterable(users), blockingRepository).flux());
+        return benchmarks;
+    }
+
+    private static Scheduler scheduler(String name) {
+        switch (name) {
+            case "immediate":
+                return Schedulers.immediate();
+            case "single":
+                return Schedulers.single();
+            case "parallel":
+                return Schedulers.parallel();
+            case "elastic":
+                return Schedulers.elastic();
+            case "boundedElastic":
+                return Schedulers.boundedElastic();
+            default:
+                throw new IllegalArgumentException("Unknown scheduler " + name);
+        }
+    }
+
+    static List<User> users(int n) {
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            users.add(new User("first" + i, "last" + (i % 100), "user" + i));
+        }
+        return users;
+    }
+
+    private static void writeCsv(String file, List<BenchmarkHarness.Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file)))) {
+            out.println("benchmark,ops_per_second,bytes_per_op,allocation_mb_per_second");
+            for (BenchmarkHarness.Result result : results) {
+                out.println(result.toCsv());
+            }
+        }
+    }
+
+    private static final class InMemoryBlockingRepository implements BlockingRepository<User> {
+
+        private final List<User> users;
+
+        InMemoryBlockingRepository(List<User> users) {
+            this.users = users;
+        }
+
+        @Override
+        public List<User> findAll() {
+            return users;
+        }
+
+        @Override
+        public void save(User user) {
+        }
+    }
+}
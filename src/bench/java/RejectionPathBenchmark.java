@@ -0,0 +1,74 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+/**
+ * Throughput of {@link Part07Errors} capitalization when a share of the users is rejected, for each way of skipping
+ * the rejected users:
+ * <ul>
+ * <li>"stack trace": throwing an exception capturing its stack trace, as GetOutOfHereException used to, and
+ * skipping it with onErrorContinue;</li>
+ * <li>"stackless": the same with the current, stackless, GetOutOfHereException;</li>
+ * <li>"results": {@link Part07Errors#capitalizeManyResults}, filtering out the rejected results;</li>
+ * <li>"skip": {@link Part07Errors#capitalizeManySkippingRejected}.</li>
+ * </ul>
+ * <p>
+ * Run with {@code mvn -Pbench compile} then
+ * {@code java -cp target/classes:<deps> RejectionPathBenchmark [elements]}.
+ */
+public class RejectionPathBenchmark {
+
+    private static final int[] REJECTION_PERCENTS = {1, 5, 10, 25, 50};
+
+    public static void main(String[] args) {
+        int elements = BenchmarkHarness.intArg(args, 0, 100_000);
+        Part07Errors part07 = new Part07Errors();
+        LongAdder rejected = new LongAdder();
+
+        for (int percent : REJECTION_PERCENTS) {
+            List<User> users = users(elements, percent);
+            String suffix = " / " + percent + "% rejected";
+            BenchmarkHarness.measure("stack trace" + suffix, 5, 10, elements,
+                    () -> Flux.fromIterable(users)
+                            .map(user -> {
+                                if (user == User.SAUL) {
+                                    throw Exceptions.propagate(new StackTraceRejection());
+                                }
+                                return new User(UserCapitalizer.upperCase(user.getFirstname()),
+                                        UserCapitalizer.upperCase(user.getLastname()),
+                                        UserCapitalizer.upperCase(user.getUsername()));
+                            })
+                            .onErrorContinue((error, user) -> rejected.increment())
+                            .blockLast());
+            BenchmarkHarness.measure("stackless" + suffix, 5, 10, elements,
+                    () -> part07.capitalizeMany(Flux.fromIterable(users))
+                            .onErrorContinue((error, user) -> rejected.increment())
+                            .blockLast());
+            BenchmarkHarness.measure("results" + suffix, 5, 10, elements,
+                    () -> part07.capitalizeManyResults(Flux.fromIterable(users))
+                            .filter(Result::isOk)
+                            .blockLast());
+            BenchmarkHarness.measure("skip" + suffix, 5, 10, elements,
+                    () -> part07.capitalizeManySkippingRejected(Flux.fromIterable(users), user -> {
+                    }).blockLast());
+        }
+    }
+
+    /**
+     * @return {@code elements} users, of which {@code percent}% are User.SAUL, evenly spread
+     */
+    private static List<User> users(int elements, int percent) {
+        List<User> users = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            users.add(i * percent % 100 < percent ? User.SAUL : new User("jesse" + i, "pinkman", "jpinkman" + i));
+        }
+        return users;
+    }
+
+    private static final class StackTraceRejection extends Exception {
+        private static final long serialVersionUID = 0L;
+    }
+}
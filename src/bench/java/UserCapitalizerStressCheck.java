@@ -0,0 +1,84 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Concurrency check of the {@link UserCapitalizer} cache: several threads capitalize distinct users through a cache
+ * small enough that they all collide on the same slots, and every result is checked against the uppercased fields
+ * of its own input. Then {@link Part04Transform#capitalizeManyParallel(Flux, int, boolean)}, whose rails share one
+ * capitalizer, is run over as many users, each ordered result being checked the same way against the input at its
+ * position. Exits with status 1 if any thread or rail got another user's result.
+ * <p>
+ * Run with {@code mvn -Pbench compile} then
+ * {@code java -cp target/classes:<deps> UserCapitalizerStressCheck [threads] [iterations] [cacheSize]}.
+ */
+public class UserCapitalizerStressCheck {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = BenchmarkHarness.intArg(args, 0, Math.max(4, Runtime.getRuntime().availableProcessors()));
+        int iterations = BenchmarkHarness.intArg(args, 1, 2_000_000);
+        int cacheSize = BenchmarkHarness.intArg(args, 2, 2);
+
+        UserCapitalizer capitalizer = new UserCapitalizer(cacheSize);
+        AtomicLong mismatches = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                // a handful of usernames per thread, shared by no other thread
+                User[] users = new User[8];
+                for (int i = 0; i < users.length; i++) {
+                    users[i] = new User("walter" + id + "_" + i, "white" + id, "wwhite" + id + "_" + i);
+                }
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < iterations; i++) {
+                    User user = users[i & (users.length - 1)];
+                    if (!matches(user, capitalizer.capitalize(user))) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            }, "capitalizer-" + t);
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.printf("%d threads x %d capitalizations over %d cache slots in %d ms: %d mismatches%n", threads,
+                iterations, cacheSize, (System.nanoTime() - begin) / 1_000_000, mismatches.get());
+
+        long threadMismatches = mismatches.getAndSet(0);
+        User[] users = new User[1024];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = new User("jesse" + i, "pinkman", "jpinkman" + i);
+        }
+        begin = System.nanoTime();
+        new Part04Transform()
+                .capitalizeManyParallel(Flux.range(0, iterations).map(i -> users[i & (users.length - 1)]), threads, true)
+                .index()
+                .doOnNext(indexed -> {
+                    if (!matches(users[(int) (indexed.getT1() & (users.length - 1))], indexed.getT2())) {
+                        mismatches.incrementAndGet();
+                    }
+                })
+                .blockLast();
+        System.out.printf("%d rails x %d ordered capitalizations in %d ms: %d mismatches%n", threads, iterations,
+                (System.nanoTime() - begin) / 1_000_000, mismatches.get());
+        if (threadMismatches != 0 || mismatches.get() != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean matches(User user, User capitalized) {
+        return capitalized.getUsername().equals(UserCapitalizer.upperCase(user.getUsername()))
+                && capitalized.getFirstname().equals(UserCapitalizer.upperCase(user.getFirstname()))
+                && capitalized.getLastname().equals(UserCapitalizer.upperCase(user.getLastname()));
+    }
+}
@@ -0,0 +1,64 @@
+import java.time.Duration;
+
+/**
+ * Outcome of a batched write into a {@link BlockingRepository}.
+ */
+final class BatchWriteReport {
+
+    private final long savedUsers;
+    private final long failedUsers;
+    private final long savedBatches;
+    private final long failedBatches;
+    private final Duration elapsed;
+    private final Throwable lastFailure;
+
+    BatchWriteReport(long savedUsers, long failedUsers, long savedBatches, long failedBatches,
+                     Duration elapsed, Throwable lastFailure) {
+        this.savedUsers = savedUsers;
+        this.failedUsers = failedUsers;
+        this.savedBatches = savedBatches;
+        this.failedBatches = failedBatches;
+        this.elapsed = elapsed;
+        this.lastFailure = lastFailure;
+    }
+
+    long getSavedUsers() {
+        return savedUsers;
+    }
+
+    long getFailedUsers() {
+        return failedUsers;
+    }
+
+    long getSavedBatches() {
+        return savedBatches;
+    }
+
+    long getFailedBatches() {
+        return failedBatches;
+    }
+
+    Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return the error of the last failed batch, or {@code null} if every batch was saved
+     */
+    Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    double getUsersPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0d : savedUsers * 1_000_000_000d / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchWriteReport{saved=" + savedUsers + " users/" + savedBatches + " batches"
+                + ", failed=" + failedUsers + " users/" + failedBatches + " batches"
+                + ", elapsed=" + elapsed
+                + ", throughput=" + String.format("%.1f", getUsersPerSecond()) + " users/s}";
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link Scheduler} for offloading blocking calls, capped both in threads and in queued tasks.
+ * <p>
+ * Unlike {@link Schedulers#elastic()}, a load spike cannot make it spawn thousands of threads: once every
+ * thread is busy tasks wait in a bounded queue, and once that queue is full the {@link RejectionPolicy}
+ * decides what happens. With {@link RejectionPolicy#ABORT} the rejected subscription receives a
+ * {@link RejectedExecutionException} through its onError signal, so callers degrade predictably.
+ * <p>
+ * {@link #onVirtualThreads(String)} is the opt-in alternative for JDK 21+: every task gets its own virtual
+ * thread, so blocked calls cost a small heap-allocated stack rather than a platform thread.
+ */
+final class BlockingBridgeScheduler implements Disposable {
+
+    enum RejectionPolicy {
+        /**
+         * Fail the task; Reactor surfaces it as an onError signal to the subscriber.
+         */
+        ABORT,
+        /**
+         * Run the task on the submitting thread, which throttles the producer.
+         * Never use it when the submitter may be a non-blocking Reactor thread.
+         */
+        CALLER_RUNS
+    }
+
+    private final String name;
+    private final Scheduler scheduler;
+    private final IntSupplier activeCount;
+    private final IntSupplier queuedCount;
+    private final IntSupplier poolSize;
+    private final LongAdder rejected;
+
+    BlockingBridgeScheduler(String name, int maxThreads, int maxQueuedTasks, RejectionPolicy rejectionPolicy) {
+        if (maxThreads <= 0 || maxQueuedTasks <= 0) {
+            throw new IllegalArgumentException("maxThreads and maxQueuedTasks must be positive");
+        }
+        LongAdder rejected = new LongAdder();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueuedTasks), namedDaemonThreads(name),
+                countingRejections(rejectionPolicy, rejected));
+        executor.allowCoreThreadTimeOut(true);
+        this.name = name;
+        this.scheduler = Schedulers.fromExecutorService(executor, name);
+        this.activeCount = executor::getActiveCount;
+        this.queuedCount = () -> executor.getQueue().size();
+        this.poolSize = executor::getPoolSize;
+        this.rejected = rejected;
+    }
+
+    private BlockingBridgeScheduler(String name, ActiveCountingExecutor executor) {
+        this.name = name;
+        this.scheduler = Schedulers.fromExecutorService(executor, name);
+        this.activeCount = executor::activeCount;
+        this.queuedCount = () -> 0;
+        this.poolSize = executor::activeCount;
+        this.rejected = new LongAdder();
+    }
+
+    /**
+     * @return a bridge running each task on a fresh virtual thread; it never queues nor rejects
+     * @throws UnsupportedOperationException if the running JVM has no virtual threads
+     * @see VirtualThreads#isSupported()
+     */
+    static BlockingBridgeScheduler onVirtualThreads(String name) {
+        return new BlockingBridgeScheduler(name,
+                new ActiveCountingExecutor(VirtualThreads.newThreadPerTaskExecutor(name)));
+    }
+
+    /**
+     * @return a bridge sized for typical blocking I/O: a few threads per core and a queue of 1024 tasks
+     */
+    static BlockingBridgeScheduler withDefaults(String name) {
+        return new BlockingBridgeScheduler(name, 4 * Runtime.getRuntime().availableProcessors(), 1024,
+                RejectionPolicy.ABORT);
+    }
+
+    Scheduler scheduler() {
+        return scheduler;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * @return the number of threads currently running a task
+     */
+    int activeCount() {
+        return activeCount.getAsInt();
+    }
+
+    /**
+     * @return the number of tasks waiting for a free thread
+     */
+    int queuedCount() {
+        return queuedCount.getAsInt();
+    }
+
+    /**
+     * @return the number of tasks refused since creation because the queue was full
+     */
+    long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the number of live threads; for virtual threads, the number of running tasks
+     */
+    int poolSize() {
+        return poolSize.getAsInt();
+    }
+
+    @Override
+    public void dispose() {
+        scheduler.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return scheduler.isDisposed();
+    }
+
+    @Override
+    public String toString() {
+        return "BlockingBridgeScheduler{" + name + ", active=" + activeCount() + ", queued=" + queuedCount()
+                + ", rejected=" + rejectedCount() + ", poolSize=" + poolSize() + "}";
+    }
+
+    private static RejectedExecutionHandler countingRejections(RejectionPolicy rejectionPolicy,
+                                                               LongAdder rejected) {
+        RejectedExecutionHandler delegate = rejectionPolicy == RejectionPolicy.CALLER_RUNS
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+        return (task, pool) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+
+    private static ThreadFactory namedDaemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Tracks running tasks of an executor that, like the virtual-thread-per-task one, exposes no pool statistics.
+     */
+    private static final class ActiveCountingExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final AtomicInteger active = new AtomicInteger();
+
+        ActiveCountingExecutor(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        int activeCount() {
+            return active.get();
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(() -> {
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -1,7 +1,27 @@
 import java.util.List;
+import java.util.stream.Stream;
 
 interface BlockingRepository<T> {
     List<User> findAll();
 
+    /**
+     * Reads all users through a cursor instead of a materialised list. The returned stream may hold resources
+     * (eg. a JDBC result set) and must be closed by the caller. Implementations backed by a real store should
+     * override this; the default only wraps {@link #findAll()}.
+     */
+    default Stream<User> stream() {
+        return findAll().stream();
+    }
+
     void save(User user);
+
+    /**
+     * Saves a whole batch in one round-trip. Implementations backed by a real
+     * store should override this with a native batch write.
+     */
+    default void saveAll(List<User> users) {
+        for (User user : users) {
+            save(user);
+        }
+    }
 }
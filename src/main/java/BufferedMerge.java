@@ -0,0 +1,303 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+/**
+ * Merges several sources, all subscribed eagerly, each buffering at most {@code prefetch} items ahead of the merge.
+ * <p>
+ * {@link Mode#ORDERED} emits every item of the first source, then of the second, and so on, like concat, but without
+ * waiting for a source to complete before subscribing to the next one: their latencies overlap instead of adding up.
+ * {@link Mode#ROUND_ROBIN} takes one item from each source in turn, skipping the sources with nothing buffered, so
+ * a fast source cannot starve a slow one the way mergeWith lets it.
+ * <p>
+ * The first error of any source cancels the others and is propagated right away. {@link Metrics} reports how many
+ * items each source has buffered.
+ */
+final class BufferedMerge<T> extends Flux<T> {
+
+    enum Mode {
+        ORDERED, ROUND_ROBIN
+    }
+
+    /**
+     * Buffer occupancy of each source of a merge, shared by all its subscriptions.
+     */
+    static final class Metrics {
+
+        private final AtomicLongArray emitted;
+        private final AtomicLongArray depth;
+        private final AtomicLongArray peakDepth;
+
+        Metrics(int sources) {
+            this.emitted = new AtomicLongArray(sources);
+            this.depth = new AtomicLongArray(sources);
+            this.peakDepth = new AtomicLongArray(sources);
+        }
+
+        int sources() {
+            return depth.length();
+        }
+
+        long emitted(int source) {
+            return emitted.get(source);
+        }
+
+        /**
+         * @return the number of items of that source buffered as of the last drain of the merge
+         */
+        long depth(int source) {
+            return depth.get(source);
+        }
+
+        /**
+         * @return the largest number of items of that source seen buffered
+         */
+        long peakDepth(int source) {
+            return peakDepth.get(source);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("BufferedMerge.Metrics{");
+            for (int i = 0; i < sources(); i++) {
+                sb.append(i == 0 ? "" : ", ").append(i).append("=[emitted=").append(emitted(i))
+                        .append(", depth=").append(depth(i)).append(", peakDepth=").append(peakDepth(i))
+                        .append(']');
+            }
+            return sb.append('}').toString();
+        }
+
+        private void record(int source, int size) {
+            depth.lazySet(source, size);
+            long current;
+            while (size > (current = peakDepth.get(source)) && !peakDepth.compareAndSet(source, current, size)) {
+                // retry
+            }
+        }
+    }
+
+    private final List<? extends Publisher<? extends T>> sources;
+    private final Mode mode;
+    private final int prefetch;
+    private final Metrics metrics;
+
+    BufferedMerge(List<? extends Publisher<? extends T>> sources, Mode mode, int prefetch, Metrics metrics) {
+        if (metrics.sources() != sources.size()) {
+            throw new IllegalArgumentException("metrics track " + metrics.sources() + " sources, got "
+                    + sources.size());
+        }
+        this.sources = sources;
+        this.mode = mode;
+        this.prefetch = prefetch;
+        this.metrics = metrics;
+    }
+
+    static <T> BufferedMerge<T> ordered(List<? extends Publisher<? extends T>> sources, int prefetch) {
+        return new BufferedMerge<>(sources, Mode.ORDERED, prefetch, new Metrics(sources.size()));
+    }
+
+    static <T> BufferedMerge<T> roundRobin(List<? extends Publisher<? extends T>> sources, int prefetch) {
+        return new BufferedMerge<>(sources, Mode.ROUND_ROBIN, prefetch, new Metrics(sources.size()));
+    }
+
+    Metrics bufferMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        MergeCoordinator<T> coordinator = new MergeCoordinator<>(actual, this);
+        actual.onSubscribe(coordinator);
+        for (int i = 0; i < coordinator.buffers.length && !coordinator.cancelled; i++) {
+            sources.get(i).subscribe(coordinator.buffers[i]);
+        }
+        coordinator.drainLoop();
+    }
+
+    private static final class MergeCoordinator<T> implements Subscription {
+
+        private final CoreSubscriber<? super T> actual;
+        private final Mode mode;
+        private final Metrics metrics;
+        private final SourceBuffer<T>[] buffers;
+        // held at 1 until every source is subscribed, so that the sources emitting while they are subscribed
+        // do not get ahead of the others
+        private final AtomicInteger wip = new AtomicInteger(1);
+
+        private volatile long requested;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<MergeCoordinator> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(MergeCoordinator.class, "requested");
+
+        private volatile boolean cancelled;
+
+        // drain loop only: the source being emitted in ORDERED mode, the next one to visit in ROUND_ROBIN mode
+        private int index;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        MergeCoordinator(CoreSubscriber<? super T> actual, BufferedMerge<T> parent) {
+            this.actual = actual;
+            this.mode = parent.mode;
+            this.metrics = parent.metrics;
+            this.buffers = new SourceBuffer[parent.sources.size()];
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = new SourceBuffer<>(parent.prefetch, this::drain, actual.currentContext());
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelSources();
+            if (wip.getAndIncrement() == 0) {
+                clearSources();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            for (; ; ) {
+                if (terminatedWithError()) {
+                    return;
+                }
+                for (int i = 0; i < buffers.length; i++) {
+                    metrics.record(i, buffers[i].size());
+                }
+                long r = requested;
+                long e = 0;
+                while (e != r) {
+                    if (cancelled) {
+                        clearSources();
+                        return;
+                    }
+                    int source = mode == Mode.ORDERED ? nextOrdered() : nextRoundRobin();
+                    if (source < 0) {
+                        break;
+                    }
+                    if (source == buffers.length) {
+                        actual.onComplete();
+                        return;
+                    }
+                    actual.onNext(buffers[source].poll());
+                    metrics.emitted.incrementAndGet(source);
+                    e++;
+                }
+                if (e == r && exhausted() && !cancelled) {
+                    actual.onComplete();
+                    return;
+                }
+                if (e != 0) {
+                    Operators.produced(REQUESTED, this, e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return the source to emit from next, -1 if it has nothing buffered yet or has failed, or the number of
+         * sources once they are all exhausted
+         */
+        private int nextOrdered() {
+            while (index < buffers.length) {
+                SourceBuffer<T> buffer = buffers[index];
+                boolean done = buffer.isDone();
+                if (!buffer.isEmpty()) {
+                    return index;
+                }
+                if (!done || buffer.error() != null) {
+                    return -1;
+                }
+                index++;
+            }
+            return index;
+        }
+
+        /**
+         * @return the first source from the cursor on with an item buffered, moving the cursor past it, -1 if none
+         * has or one has failed, or the number of sources once they are all exhausted
+         */
+        private int nextRoundRobin() {
+            int n = buffers.length;
+            boolean allExhausted = true;
+            for (int i = 0; i < n; i++) {
+                int source = index + i < n ? index + i : index + i - n;
+                SourceBuffer<T> buffer = buffers[source];
+                boolean done = buffer.isDone();
+                if (!buffer.isEmpty()) {
+                    index = source + 1 < n ? source + 1 : 0;
+                    return source;
+                }
+                if (done && buffer.error() != null) {
+                    return -1;
+                }
+                allExhausted &= done;
+            }
+            return allExhausted ? n : -1;
+        }
+
+        private boolean exhausted() {
+            if (mode == Mode.ORDERED) {
+                return nextOrdered() == buffers.length;
+            }
+            for (SourceBuffer<T> buffer : buffers) {
+                if (!buffer.isExhausted() || buffer.error() != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean terminatedWithError() {
+            if (cancelled) {
+                clearSources();
+                return true;
+            }
+            for (SourceBuffer<T> buffer : buffers) {
+                Throwable error = buffer.isDone() ? buffer.error() : null;
+                if (error != null) {
+                    cancelSources();
+                    clearSources();
+                    actual.onError(error);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void cancelSources() {
+            for (SourceBuffer<T> buffer : buffers) {
+                buffer.cancel();
+            }
+        }
+
+        private void clearSources() {
+            for (SourceBuffer<T> buffer : buffers) {
+                buffer.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+import java.time.Duration;
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveUserRepository} with a {@link ReactiveCache} in front of {@link #findByUsername(String)}.
+ * <p>
+ * Each saved user replaces its cached entry once it has been written to the delegate, and a lookup already loading
+ * it then is not cached, so a lookup subscribed after a save made through this repository completes returns that
+ * user or a newer one. Lookups that were already in flight may still return the previous user. Saves made directly
+ * on the delegate are only seen once the entry expires.
+ */
+class CachingUserRepository implements ReactiveRepository<User> {
+
+    private final ReactiveUserRepository delegate;
+
+    private final ReactiveCache<String, User> byUsername;
+
+    CachingUserRepository(ReactiveUserRepository delegate, int maxSize, Duration ttl) {
+        this.delegate = delegate;
+        this.byUsername = new ReactiveCache<>(maxSize, ttl, delegate::findByUsername);
+    }
+
+    @Override
+    public Flux<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Flux<List<User>> findAll(int pageSize) {
+        return delegate.findAll(pageSize);
+    }
+
+    @Override
+    public Mono<Void> save(Publisher<User> publisher) {
+        return Flux.from(publisher)
+                .concatMap(user -> delegate.save(Mono.just(user))
+                        .doOnSuccess(saved -> byUsername.put(user.getUsername(), user)))
+                .then();
+    }
+
+    Mono<User> findByUsername(String username) {
+        return byUsername.get(username);
+    }
+
+    ReactiveCache<String, User> cache() {
+        return byUsername;
+    }
+}
@@ -0,0 +1,18 @@
+import java.util.List;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A remote service uppercasing the username, firstname and lastname of users.
+ */
+interface CapitalizeService {
+
+    Mono<User> capitalize(User user);
+
+    /**
+     * Capitalises a whole batch in one round-trip.
+     *
+     * @return the capitalised users, in the order of {@code users}
+     */
+    Mono<List<User>> capitalizeBatch(List<User> users);
+}
@@ -0,0 +1,183 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Operators;
+
+/**
+ * Blocking iterator over a flux, handing out its elements in chunks of {@code chunkSize}, the last one possibly
+ * smaller.
+ * <p>
+ * Elements go through a single-producer single-consumer ring holding two chunks, rounded up to a power of two: the
+ * producer fills one chunk while the consumer drains the other. Indexes are published with {@code lazySet}, so
+ * neither side takes a lock or a full barrier per element. The consumer only parks when a whole chunk is not
+ * available yet, and the producer only considers waking it up when it completes a chunk or terminates: since chunks
+ * are consumed whole, the consumer index is always at a chunk boundary and a chunk becomes available exactly then.
+ * <p>
+ * A chunk is requested again from upstream each time one has been consumed.
+ */
+final class ChunkedBlockingIterator<T> implements Iterator<List<T>>, CoreSubscriber<T>, Disposable {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ChunkedBlockingIterator, Subscription> S =
+            AtomicReferenceFieldUpdater.newUpdater(ChunkedBlockingIterator.class, Subscription.class, "s");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ChunkedBlockingIterator, Thread> WAITER =
+            AtomicReferenceFieldUpdater.newUpdater(ChunkedBlockingIterator.class, Thread.class, "waiter");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<ChunkedBlockingIterator> PRODUCER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(ChunkedBlockingIterator.class, "producerIndex");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<ChunkedBlockingIterator> CONSUMER_INDEX =
+            AtomicLongFieldUpdater.newUpdater(ChunkedBlockingIterator.class, "consumerIndex");
+
+    private final ReactiveToBlockingBridge bridge;
+    private final Duration timeout;
+    private final int chunkSize;
+    private final Object[] ring;
+    private final int mask;
+
+    private volatile Subscription s;
+    private volatile Thread waiter;
+    private volatile long producerIndex;
+    private volatile long consumerIndex;
+    private volatile boolean done;
+    private Throwable error;
+
+    // producer side only
+    private int untilChunkEnd;
+
+    ChunkedBlockingIterator(ReactiveToBlockingBridge bridge, Duration timeout, int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > 1 << 29) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and 2^29, got " + chunkSize);
+        }
+        this.bridge = bridge;
+        this.timeout = timeout;
+        this.chunkSize = chunkSize;
+        int capacity = Integer.highestOneBit(2 * chunkSize - 1) << 1;
+        this.ring = new Object[capacity];
+        this.mask = capacity - 1;
+        this.untilChunkEnd = chunkSize;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (Operators.setOnce(S, this, s)) {
+            s.request(ring.length);
+        }
+    }
+
+    @Override
+    public void onNext(T t) {
+        long index = producerIndex;
+        if (index - consumerIndex == ring.length) {
+            Operators.terminate(S, this);
+            onError(Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL));
+            return;
+        }
+        ring[(int) index & mask] = t;
+        PRODUCER_INDEX.lazySet(this, index + 1);
+        if (--untilChunkEnd == 0) {
+            untilChunkEnd = chunkSize;
+            wakeUp();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        error = t;
+        done = true;
+        wakeUp();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        wakeUp();
+    }
+
+    private void wakeUp() {
+        // a full barrier after publishing the index, paired with the waiter's re-check of the index
+        Thread w = WAITER.getAndSet(this, null);
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        long available = producerIndex - consumerIndex;
+        if (available >= chunkSize) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (; ; ) {
+            boolean d = done;
+            available = producerIndex - consumerIndex;
+            if (available >= chunkSize) {
+                return true;
+            }
+            if (d) {
+                Throwable e = error;
+                if (e != null) {
+                    throw Exceptions.propagate(e);
+                }
+                return available != 0;
+            }
+            bridge.checkBlockingAllowed("hasNext");
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                dispose();
+                throw ReactiveToBlockingBridge.timeout(timeout);
+            }
+            waiter = Thread.currentThread();
+            if (producerIndex - consumerIndex < chunkSize && !done) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waiter = null;
+            if (Thread.interrupted()) {
+                dispose();
+                Thread.currentThread().interrupt();
+                throw Exceptions.propagate(new InterruptedException());
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long index = consumerIndex;
+        int n = (int) Math.min(chunkSize, producerIndex - index);
+        List<T> chunk = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int offset = (int) (index + i) & mask;
+            chunk.add((T) ring[offset]);
+            ring[offset] = null;
+        }
+        CONSUMER_INDEX.lazySet(this, index + n);
+        s.request(n);
+        return chunk;
+    }
+
+    @Override
+    public void dispose() {
+        Operators.terminate(S, this);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return s == Operators.cancelledSubscription();
+    }
+}
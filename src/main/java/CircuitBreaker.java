@@ -0,0 +1,232 @@
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Circuit breaker for reactive sources.
+ * <p>
+ * While {@link State#CLOSED}, calls go through and consecutive failures are counted; reaching the failure threshold
+ * opens the breaker. While {@link State#OPEN}, calls are short-circuited with a {@link CircuitBreakerOpenException}
+ * without subscribing to the source. Once the open duration has elapsed, the breaker is {@link State#HALF_OPEN}: the
+ * next {@code trialCalls} calls are let through as trials while the others keep being short-circuited. The breaker
+ * closes once every trial has succeeded, and opens again for another open duration as soon as one fails.
+ * <p>
+ * A call succeeds on its first value or on completion, and fails on error. A cancelled call counts as neither; a
+ * cancelled trial lets another call take its place. Only trials decide how a half-open breaker ends: a call let
+ * through before the breaker opened does not, whenever it terminates.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int trialCalls;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder[] transitions = new LongAdder[State.values().length];
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, 1);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, int trialCalls) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive, got " + failureThreshold);
+        }
+        if (trialCalls <= 0) {
+            throw new IllegalArgumentException("trialCalls must be positive, got " + trialCalls);
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.trialCalls = trialCalls;
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = new LongAdder();
+        }
+    }
+
+    <T> Mono<T> protect(Mono<T> source) {
+        return Mono.from(protect(source.flux()));
+    }
+
+    <T> Flux<T> protect(Flux<T> source) {
+        return Flux.defer(() -> {
+            Status admittedIn = tryAcquire();
+            if (admittedIn == null) {
+                shortCircuited.increment();
+                return Flux.error(new CircuitBreakerOpenException(name));
+            }
+            AtomicBoolean done = new AtomicBoolean();
+            return source
+                    .doOnNext(value -> {
+                        if (done.compareAndSet(false, true)) {
+                            onSuccess(admittedIn);
+                        }
+                    })
+                    .doFinally(signal -> {
+                        if (done.compareAndSet(false, true)) {
+                            if (signal == SignalType.ON_COMPLETE) {
+                                onSuccess(admittedIn);
+                            } else if (signal == SignalType.ON_ERROR) {
+                                onFailure(admittedIn);
+                            } else {
+                                onCancel(admittedIn);
+                            }
+                        }
+                    });
+        });
+    }
+
+    /**
+     * @return the status the call is let through in, or null if it is short-circuited
+     */
+    private Status tryAcquire() {
+        for (; ; ) {
+            Status current = status.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAt < openNanos) {
+                        return null;
+                    }
+                    // whoever moves the breaker to half-open, retry to take one of its trials
+                    transition(current, State.HALF_OPEN);
+                    break;
+                default:
+                    return current.tryAdmitTrial(trialCalls) ? current : null;
+            }
+        }
+    }
+
+    private void onSuccess(Status admittedIn) {
+        successes.increment();
+        if (admittedIn.state == State.HALF_OPEN) {
+            if (admittedIn.recordTrialSuccess() == trialCalls) {
+                transition(admittedIn, State.CLOSED);
+            }
+        } else {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private void onFailure(Status admittedIn) {
+        failures.increment();
+        if (admittedIn.state == State.HALF_OPEN) {
+            transition(admittedIn, State.OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            transition(Status.CLOSED, State.OPEN);
+        }
+    }
+
+    private void onCancel(Status admittedIn) {
+        if (admittedIn.state == State.HALF_OPEN) {
+            admittedIn.releaseTrial();
+        }
+    }
+
+    private boolean transition(Status from, State to) {
+        Status next = to == State.OPEN ? new Status(State.OPEN, System.nanoTime())
+                : to == State.CLOSED ? Status.CLOSED : new Status(State.HALF_OPEN, 0);
+        if (!status.compareAndSet(from, next)) {
+            return false;
+        }
+        if (to == State.CLOSED) {
+            consecutiveFailures.set(0);
+        }
+        transitions[to.ordinal()].increment();
+        return true;
+    }
+
+    String name() {
+        return name;
+    }
+
+    State state() {
+        return status.get().state;
+    }
+
+    long successes() {
+        return successes.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the number of calls failed with a {@link CircuitBreakerOpenException} without reaching the source
+     */
+    long shortCircuited() {
+        return shortCircuited.sum();
+    }
+
+    /**
+     * @return the number of times the breaker has moved into {@code state}
+     */
+    long transitionsTo(State state) {
+        return transitions[state.ordinal()].sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{name=" + name + ", state=" + state() + ", successes=" + successes() + ", failures="
+                + failures() + ", shortCircuited=" + shortCircuited() + ", opened=" + transitionsTo(State.OPEN)
+                + ", halfOpened=" + transitionsTo(State.HALF_OPEN) + ", closed=" + transitionsTo(State.CLOSED) + "}";
+    }
+
+    /**
+     * A state and, when {@link State#OPEN}, the time it was entered: swapped as one so that the timestamp only
+     * changes with a successful transition. Each half-open period gets its own instance, counting its trials.
+     */
+    private static final class Status {
+
+        static final Status CLOSED = new Status(State.CLOSED, 0);
+
+        final State state;
+        final long openedAt;
+        private final AtomicInteger trialsAdmitted = new AtomicInteger();
+        private final AtomicInteger trialsSucceeded = new AtomicInteger();
+
+        Status(State state, long openedAt) {
+            this.state = state;
+            this.openedAt = openedAt;
+        }
+
+        boolean tryAdmitTrial(int trialCalls) {
+            int admitted;
+            do {
+                admitted = trialsAdmitted.get();
+                if (admitted >= trialCalls) {
+                    return false;
+                }
+            } while (!trialsAdmitted.compareAndSet(admitted, admitted + 1));
+            return true;
+        }
+
+        void releaseTrial() {
+            trialsAdmitted.decrementAndGet();
+        }
+
+        /**
+         * @return the number of trials of this period that have succeeded, this one included
+         */
+        int recordTrialSuccess() {
+            return trialsSucceeded.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * Signalled instead of subscribing to a source protected by an open {@link CircuitBreaker}.
+ * <p>
+ * It is an {@link IllegalStateException}, so the fallbacks of {@link Part07Errors} apply to it as they do to the
+ * failures of the source itself. It carries no stack trace: it is raised on every short-circuited call, precisely
+ * when the system is under stress.
+ */
+final class CircuitBreakerOpenException extends IllegalStateException {
+
+    private static final long serialVersionUID = 0L;
+
+    CircuitBreakerOpenException(String name) {
+        super("Circuit breaker '" + name + "' is open");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,151 @@
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+/**
+ * Converts between {@link Mono} and {@link CompletableFuture} with cancellation flowing both ways.
+ * <p>
+ * mono.toFuture() and Mono.fromFuture(future) leave the other side running when one side gives up: cancelling the
+ * future does not cancel the Mono subscription, and cancelling the Mono does not cancel the future. Here
+ * cancelling (or timing out) either side releases the other. Every conversion can take a timeout and an executor
+ * on which completions are delivered, so that dependent stages do not run on a Reactor thread.
+ * <p>
+ * {@link #inFlight()} counts conversions that have started but not yet terminated, which makes abandoned futures
+ * visible under load.
+ */
+final class CompletableFutureBridge {
+
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /**
+     * @return the number of futures and Monos created by this bridge that have not completed, failed or been
+     * cancelled yet
+     */
+    long inFlight() {
+        return inFlight.get();
+    }
+
+    <T> CompletableFuture<T> toFuture(Mono<T> mono) {
+        return toFuture(mono, null, null);
+    }
+
+    /**
+     * Subscribes to {@code mono} and returns a future of its value ({@code null} if empty). Cancelling the future
+     * cancels the subscription.
+     *
+     * @param timeout            fails the future with a TimeoutException if the Mono has not answered in time, or
+     *                           null for no timeout
+     * @param completionExecutor executor completing the future, or null to complete it on the signalling thread
+     */
+    <T> CompletableFuture<T> toFuture(Mono<T> mono, Duration timeout, Executor completionExecutor) {
+        FutureSubscriber<T> subscriber = new FutureSubscriber<>(completionExecutor);
+        inFlight.incrementAndGet();
+        subscriber.future.whenComplete((value, error) -> inFlight.decrementAndGet());
+        (timeout == null ? mono : mono.timeout(timeout)).subscribe(subscriber);
+        return subscriber.future;
+    }
+
+    <T> Mono<T> toMono(Supplier<? extends CompletableFuture<T>> futureSupplier) {
+        return toMono(futureSupplier, null, null);
+    }
+
+    /**
+     * Returns a Mono that, for each subscription, obtains a future from {@code futureSupplier} and emits its
+     * result. Cancelling the subscription, or reaching the timeout, cancels the future.
+     *
+     * @param timeout            fails the Mono with a TimeoutException if the future has not completed in time,
+     *                           or null for no timeout
+     * @param completionExecutor executor on which the Mono signals the result, or null to signal it on the thread
+     *                           completing the future
+     */
+    <T> Mono<T> toMono(Supplier<? extends CompletableFuture<T>> futureSupplier, Duration timeout,
+                       Executor completionExecutor) {
+        Mono<T> mono = Mono.defer(() -> fromFuture(futureSupplier.get(), completionExecutor));
+        return timeout == null ? mono : mono.timeout(timeout);
+    }
+
+    private <T> Mono<T> fromFuture(CompletableFuture<T> future, Executor completionExecutor) {
+        return Mono.<T>create(sink -> {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            inFlight.incrementAndGet();
+            sink.onDispose(inFlight::decrementAndGet);
+            sink.onCancel(() -> {
+                cancelled.set(true);
+                future.cancel(true);
+            });
+            BiConsumer<T, Throwable> signal = (value, error) -> {
+                if (cancelled.get()) {
+                    return;
+                }
+                if (error == null) {
+                    sink.success(value);
+                } else {
+                    sink.error(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+            };
+            if (completionExecutor == null) {
+                future.whenComplete(signal);
+            } else {
+                future.whenCompleteAsync(signal, completionExecutor);
+            }
+        });
+    }
+
+    /**
+     * Completes its future from the Mono signals, and cancels the subscription when the future is cancelled.
+     */
+    private static final class FutureSubscriber<T> extends BaseSubscriber<T> {
+
+        private final Executor completionExecutor;
+        private final CompletableFuture<T> future = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    dispose();
+                }
+                return cancelled;
+            }
+        };
+        private boolean hasValue;
+
+        FutureSubscriber(Executor completionExecutor) {
+            this.completionExecutor = completionExecutor;
+        }
+
+        @Override
+        protected void hookOnNext(T value) {
+            hasValue = true;
+            deliver(() -> future.complete(value));
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            if (!hasValue) {
+                deliver(() -> future.complete(null));
+            }
+        }
+
+        @Override
+        protected void hookOnError(Throwable error) {
+            deliver(() -> future.completeExceptionally(error));
+        }
+
+        private void deliver(Runnable completion) {
+            if (completionExecutor == null) {
+                completion.run();
+            } else {
+                completionExecutor.execute(completion);
+            }
+        }
+    }
+}
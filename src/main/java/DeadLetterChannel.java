@@ -0,0 +1,136 @@
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.EmitterProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Per-element error isolation: {@link #map(Flux, Step)} applies a step that may fail to each element, emits the
+ * results in order and routes the elements it failed on, with their cause, to the dead-letter {@link #flux()}
+ * instead of terminating the stream.
+ * <p>
+ * Dead letters are buffered up to {@code capacity} until they are requested; beyond that they are dropped and
+ * counted rather than slowing down or failing the main stream. The channel can be shared by several pipelines, and
+ * {@link #flux()} only completes once {@link #close()} is called.
+ */
+final class DeadLetterChannel<T> {
+
+    /**
+     * A step of a pipeline that may fail, eg. with a checked exception.
+     */
+    interface Step<T, R> {
+        R apply(T element) throws Exception;
+    }
+
+    static final class DeadLetter<T> {
+        private final T element;
+        private final Throwable cause;
+
+        DeadLetter(T element, Throwable cause) {
+            this.element = element;
+            this.cause = cause;
+        }
+
+        T element() {
+            return element;
+        }
+
+        Throwable cause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return "DeadLetter{element=" + element + ", cause=" + cause + "}";
+        }
+    }
+
+    private final EmitterProcessor<DeadLetter<T>> processor;
+    private final FluxSink<DeadLetter<T>> sink;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    DeadLetterChannel(int capacity) {
+        // not cancelled when a dead-letter subscriber leaves, as the main streams keep going
+        this.processor = EmitterProcessor.create(capacity, false);
+        this.sink = processor.sink(FluxSink.OverflowStrategy.DROP);
+    }
+
+    <R> Flux<R> map(Flux<T> source, Step<? super T, ? extends R> step) {
+        return source.handle((element, downstream) -> {
+            R result;
+            try {
+                result = step.apply(element);
+            } catch (Throwable e) {
+                Exceptions.throwIfJvmFatal(e);
+                failed.increment();
+                deadLetter(element, e);
+                return;
+            }
+            processed.increment();
+            downstream.next(result);
+        });
+    }
+
+    private void deadLetter(T element, Throwable cause) {
+        // serialized, so that the demand checked is still there when emitting
+        synchronized (sink) {
+            if (sink.requestedFromDownstream() == 0) {
+                dropped.increment();
+                return;
+            }
+            sink.next(new DeadLetter<>(element, cause));
+        }
+        deadLettered.increment();
+    }
+
+    /**
+     * @return the elements that failed, with their cause; buffered ones are replayed to the first subscriber
+     */
+    Flux<DeadLetter<T>> flux() {
+        return processor;
+    }
+
+    void close() {
+        synchronized (sink) {
+            sink.complete();
+        }
+    }
+
+    /**
+     * @return the number of elements the step succeeded on
+     */
+    long processed() {
+        return processed.sum();
+    }
+
+    /**
+     * @return the number of elements the step failed on
+     */
+    long failed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return the number of failed elements emitted or buffered on the dead-letter flux
+     */
+    long deadLettered() {
+        return deadLettered.sum();
+    }
+
+    /**
+     * @return the number of failed elements dropped because the dead-letter buffer was full
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetterChannel{processed=" + processed() + ", failed=" + failed() + ", deadLettered="
+                + deadLettered() + ", dropped=" + dropped() + "}";
+    }
+}
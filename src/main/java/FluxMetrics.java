@@ -0,0 +1,176 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/**
+ * Instrumentation of the Reactive Streams signals going through a {@link Flux}, to be read at runtime with
+ * {@link #snapshot()} instead of logging each signal.
+ * <p>
+ * Counters are {@link LongAdder}s and latencies go to a {@link LatencyHistogram}, so that recording never takes a
+ * lock: unlike {@code log()} or printing to stdout, the instrumented pipelines are not serialized with each other.
+ * The latency of an element is the time since the previous element of the same subscription, or since the
+ * subscription for the first one.
+ * <p>
+ * One instance may instrument any number of fluxes and subscriptions; it then reports their totals.
+ */
+final class FluxMetrics {
+
+    private final String name;
+    private final LongAdder subscribed = new LongAdder();
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder unboundedRequests = new LongAdder();
+    private final LongAdder next = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LatencyHistogram elementLatency = new LatencyHistogram();
+
+    FluxMetrics(String name) {
+        this.name = name;
+    }
+
+    <T> Flux<T> instrument(Flux<T> source) {
+        // hidden so that the lift never builds a fuseable operator, which would need a QueueSubscription
+        return source.hide()
+                .transform(Operators.<T, T>lift((scannable, actual) -> new MetricsSubscriber<>(actual, this)));
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Values of the metrics at the time {@link #snapshot()} was called. Each value is read independently, so the
+     * snapshot of a flux under load is not atomic: eg. {@code next} may include an element whose latency is not yet
+     * in the percentiles.
+     */
+    static final class Snapshot {
+        final String name;
+        final long subscribed;
+        final long requested;
+        final long unboundedRequests;
+        final long next;
+        final long completed;
+        final long errors;
+        final long cancelled;
+        final long p50Nanos;
+        final long p99Nanos;
+        final long maxNanos;
+
+        private Snapshot(FluxMetrics metrics) {
+            this.name = metrics.name;
+            this.subscribed = metrics.subscribed.sum();
+            this.requested = metrics.requested.sum();
+            this.unboundedRequests = metrics.unboundedRequests.sum();
+            this.next = metrics.next.sum();
+            this.completed = metrics.completed.sum();
+            this.errors = metrics.errors.sum();
+            this.cancelled = metrics.cancelled.sum();
+            this.p50Nanos = metrics.elementLatency.valueAtPercentile(50);
+            this.p99Nanos = metrics.elementLatency.valueAtPercentile(99);
+            this.maxNanos = metrics.elementLatency.maxNanos();
+        }
+
+        /**
+         * @return the subscriptions that have neither terminated nor been cancelled
+         */
+        long active() {
+            return subscribed - completed - errors - cancelled;
+        }
+
+        @Override
+        public String toString() {
+            return "FluxMetrics{name=" + name + ", subscribed=" + subscribed + ", requested=" + requested
+                    + ", unboundedRequests=" + unboundedRequests + ", next=" + next + ", completed=" + completed
+                    + ", errors=" + errors + ", cancelled=" + cancelled + ", p50=" + micros(p50Nanos) + "us, p99="
+                    + micros(p99Nanos) + "us, max=" + micros(maxNanos) + "us}";
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+
+    private static final class MetricsSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+        private final CoreSubscriber<? super T> actual;
+        private final FluxMetrics metrics;
+        private Subscription s;
+        // only touched by the signals, which are serialized
+        private long lastSignal;
+        // 1 once the subscription is counted as completed, errored or cancelled: cancel() may race the signals
+        private volatile int done;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<MetricsSubscriber> DONE =
+                AtomicIntegerFieldUpdater.newUpdater(MetricsSubscriber.class, "done");
+
+        MetricsSubscriber(CoreSubscriber<? super T> actual, FluxMetrics metrics) {
+            this.actual = actual;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.s, s)) {
+                this.s = s;
+                metrics.subscribed.increment();
+                lastSignal = System.nanoTime();
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            long now = System.nanoTime();
+            metrics.elementLatency.record(now - lastSignal);
+            lastSignal = now;
+            metrics.next.increment();
+            actual.onNext(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            terminate(metrics.errors);
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            terminate(metrics.completed);
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n == Long.MAX_VALUE) {
+                metrics.unboundedRequests.increment();
+            } else {
+                metrics.requested.add(n);
+            }
+            s.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            terminate(metrics.cancelled);
+            s.cancel();
+        }
+
+        private void terminate(LongAdder outcome) {
+            if (DONE.compareAndSet(this, 0, 1)) {
+                outcome.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedged requests: subscribe to a primary source, and only subscribe to the secondary if the primary has not
+ * answered within the hedge delay. Whichever answers first wins and the other is cancelled.
+ * <p>
+ * Racing both sources from the start doubles the load on the backend for every call; hedging only pays that cost
+ * on the slow tail. The delay follows the primary's latency: once enough calls have been observed it is the
+ * configured percentile (eg. p95) of the primary's latency histogram, clamped between a minimum and a maximum, so
+ * roughly that share of calls never starts the secondary.
+ * <p>
+ * A primary cancelled because the secondary won is recorded with the time it had been running. That is a lower
+ * bound of its real latency, but leaving it out would bias the percentile low.
+ * <p>
+ * The histograms describe one pair of sources: use one instance per call site.
+ */
+final class HedgedRequests {
+
+    private static final long MIN_SAMPLES = 20;
+
+    private final double percentile;
+    private final Duration initialDelay;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final LatencyHistogram primaryLatency = new LatencyHistogram();
+    private final LatencyHistogram secondaryLatency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder secondaryWins = new LongAdder();
+
+    /**
+     * @param percentile   percentile of the primary's latency used as hedge delay, between 0 and 100
+     * @param initialDelay hedge delay used until {@value #MIN_SAMPLES} primary latencies have been recorded
+     * @param minDelay     lower bound of the adaptive delay
+     * @param maxDelay     upper bound of the adaptive delay
+     */
+    HedgedRequests(double percentile, Duration initialDelay, Duration minDelay, Duration maxDelay) {
+        this.percentile = percentile;
+        this.initialDelay = initialDelay;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    static HedgedRequests atP95() {
+        return new HedgedRequests(95, Duration.ofMillis(50), Duration.ofMillis(1), Duration.ofSeconds(1));
+    }
+
+    /**
+     * @return the value of the first of {@code primary} and the hedged {@code secondary} to signal
+     */
+    <T> Mono<T> hedge(Mono<T> primary, Mono<T> secondary) {
+        return Mono.defer(() -> {
+            calls.increment();
+            Race race = new Race();
+            return Mono.first(timed(primary, primaryLatency, race::primaryCancelled),
+                    Mono.delay(hedgeDelay()).then(Mono.defer(() -> {
+                        hedges.increment();
+                        return timed(secondary, secondaryLatency, NO_OP);
+                    })))
+                    .doOnEach(signal -> race.decided());
+        });
+    }
+
+    /**
+     * @return all the values of the first of {@code primary} and the hedged {@code secondary} to signal
+     */
+    <T> Flux<T> hedge(Flux<T> primary, Flux<T> secondary) {
+        return Flux.defer(() -> {
+            calls.increment();
+            Race race = new Race();
+            return Flux.first(timed(primary, primaryLatency, race::primaryCancelled),
+                    Mono.delay(hedgeDelay()).thenMany(Flux.defer(() -> {
+                        hedges.increment();
+                        return timed(secondary, secondaryLatency, NO_OP);
+                    })))
+                    .doOnEach(signal -> race.decided());
+        });
+    }
+
+    Duration hedgeDelay() {
+        if (primaryLatency.count() < MIN_SAMPLES) {
+            return initialDelay;
+        }
+        long nanos = primaryLatency.valueAtPercentile(percentile);
+        return Duration.ofNanos(Math.max(minDelay.toNanos(), Math.min(maxDelay.toNanos(), nanos)));
+    }
+
+    LatencyHistogram primaryLatency() {
+        return primaryLatency;
+    }
+
+    LatencyHistogram secondaryLatency() {
+        return secondaryLatency;
+    }
+
+    long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return the number of calls for which the secondary was subscribed
+     */
+    long hedges() {
+        return hedges.sum();
+    }
+
+    long secondaryWins() {
+        return secondaryWins.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgedRequests{calls=" + calls() + ", hedges=" + hedges() + ", secondaryWins=" + secondaryWins()
+                + ", hedgeDelay=" + hedgeDelay() + ", primary=" + primaryLatency + ", secondary="
+                + secondaryLatency + "}";
+    }
+
+    private static final Runnable NO_OP = () -> {
+    };
+
+    /**
+     * Outcome of one hedged call. first() cancels the loser before passing the winner's first signal downstream,
+     * so when that signal arrives, the primary has been cancelled if and only if the secondary won.
+     */
+    private final class Race {
+        private volatile boolean primaryCancelled;
+        // only touched by the serialized downstream signals
+        private boolean decided;
+
+        void primaryCancelled() {
+            primaryCancelled = true;
+        }
+
+        void decided() {
+            if (!decided) {
+                decided = true;
+                if (primaryCancelled) {
+                    secondaryWins.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the time to the first signal of {@code source}, or to its cancellation.
+     */
+    private static <T> Flux<T> timed(Flux<T> source, LatencyHistogram histogram, Runnable onCancel) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            Runnable record = () -> {
+                if (recorded.compareAndSet(false, true)) {
+                    histogram.recordSince(start);
+                }
+            };
+            return source
+                    .doOnEach(signal -> record.run())
+                    .doOnCancel(() -> {
+                        record.run();
+                        onCancel.run();
+                    });
+        });
+    }
+
+    private static <T> Mono<T> timed(Mono<T> source, LatencyHistogram histogram, Runnable onCancel) {
+        // Mono.from cancels the flux once it has its value, so only a cancellation from downstream counts here
+        return Mono.from(timed(source.flux(), histogram, NO_OP)).doOnCancel(onCancel);
+    }
+}
@@ -0,0 +1,272 @@
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * Groups a sequence into lists of at most {@code maxSize} elements, closing a list early once {@code maxDelay} has
+ * elapsed since its first element.
+ * <p>
+ * Flux#bufferTimeout does the same but is not backpressure-aware: when its timer fires while downstream has no
+ * outstanding demand it fails with an OverflowException, which happens as soon as the batches are consumed by
+ * something slower than the source (a remote call, a blocking write). Here a list whose delay has elapsed is
+ * emitted as soon as there is demand, and keeps filling up to {@code maxSize} until then. Upstream is requested
+ * {@code prefetchBatches * maxSize} elements up front and then replenished by the size of each emitted list, so at
+ * most that many elements are ever held in memory.
+ */
+final class MicroBatchFlux<T> extends Flux<List<T>> {
+
+    private static final int DEFAULT_PREFETCH_BATCHES = 2;
+
+    private final Flux<? extends T> source;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private final Scheduler timer;
+    private final int prefetchBatches;
+
+    private MicroBatchFlux(Flux<? extends T> source, int maxSize, Duration maxDelay, Scheduler timer,
+                           int prefetchBatches) {
+        if (maxSize <= 0 || prefetchBatches <= 0) {
+            throw new IllegalArgumentException("maxSize and prefetchBatches must be positive");
+        }
+        this.source = source;
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timer = timer;
+        this.prefetchBatches = prefetchBatches;
+    }
+
+    static <T> Flux<List<T>> of(Flux<? extends T> source, int maxSize, Duration maxDelay) {
+        return new MicroBatchFlux<>(source, maxSize, maxDelay, Schedulers.parallel(), DEFAULT_PREFETCH_BATCHES);
+    }
+
+    static <T> Flux<List<T>> of(Flux<? extends T> source, int maxSize, Duration maxDelay, Scheduler timer,
+                                int prefetchBatches) {
+        return new MicroBatchFlux<>(source, maxSize, maxDelay, timer, prefetchBatches);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super List<T>> actual) {
+        source.subscribe(new BatchSubscriber<>(actual, maxSize, maxDelayNanos, timer.createWorker(),
+                prefetchBatches));
+    }
+
+    private static final class BatchSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+        private final CoreSubscriber<? super List<T>> actual;
+        private final int maxSize;
+        private final long maxDelayNanos;
+        private final Scheduler.Worker worker;
+        private final int prefetchBatches;
+        private volatile long requested;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<BatchSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(BatchSubscriber.class, "requested");
+        private final AtomicInteger wip = new AtomicInteger();
+
+        // guarded by this
+        private final ArrayDeque<List<T>> ready = new ArrayDeque<>();
+        private List<T> current;
+        private boolean currentExpired;
+        private long generation;
+        private Disposable timeout;
+
+        private Subscription upstream;
+        private Throwable error;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        BatchSubscriber(CoreSubscriber<? super List<T>> actual, int maxSize, long maxDelayNanos,
+                        Scheduler.Worker worker, int prefetchBatches) {
+            this.actual = actual;
+            this.maxSize = maxSize;
+            this.maxDelayNanos = maxDelayNanos;
+            this.worker = worker;
+            this.prefetchBatches = prefetchBatches;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+                s.request((long) maxSize * prefetchBatches);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            boolean full = false;
+            synchronized (this) {
+                if (current == null) {
+                    current = new ArrayList<>(maxSize);
+                    currentExpired = false;
+                    long batch = ++generation;
+                    timeout = worker.schedule(() -> closeOnTimeout(batch), maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+                current.add(t);
+                if (current.size() >= maxSize) {
+                    closeCurrent();
+                    full = true;
+                }
+            }
+            if (full) {
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (current != null) {
+                    closeCurrent();
+                }
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            worker.dispose();
+            if (wip.getAndIncrement() == 0) {
+                clear();
+            }
+        }
+
+        private void closeOnTimeout(long batch) {
+            synchronized (this) {
+                if (current == null || generation != batch) {
+                    return;
+                }
+                timeout = null;
+                currentExpired = true;
+            }
+            drain();
+        }
+
+        // must hold the lock
+        private void closeCurrent() {
+            ready.add(current);
+            current = null;
+            currentExpired = false;
+            if (timeout != null) {
+                timeout.dispose();
+                timeout = null;
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                long r = requested;
+                long emitted = 0;
+                long released = 0;
+                while (emitted != r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    if (done && error != null) {
+                        terminateWithError();
+                        return;
+                    }
+                    List<T> batch;
+                    synchronized (this) {
+                        batch = ready.poll();
+                        if (batch == null && currentExpired) {
+                            batch = current;
+                            current = null;
+                            currentExpired = false;
+                        }
+                    }
+                    if (batch == null) {
+                        break;
+                    }
+                    actual.onNext(batch);
+                    emitted++;
+                    released += batch.size();
+                }
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                if (done) {
+                    if (error != null) {
+                        terminateWithError();
+                        return;
+                    }
+                    boolean empty;
+                    synchronized (this) {
+                        empty = ready.isEmpty() && current == null;
+                    }
+                    if (empty) {
+                        worker.dispose();
+                        actual.onComplete();
+                        return;
+                    }
+                }
+                if (emitted != 0) {
+                    Operators.produced(REQUESTED, this, emitted);
+                }
+                if (released != 0 && !done) {
+                    upstream.request(released);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private void terminateWithError() {
+            clear();
+            worker.dispose();
+            actual.onError(error);
+        }
+
+        private void clear() {
+            synchronized (this) {
+                ready.clear();
+                current = null;
+            }
+        }
+    }
+}
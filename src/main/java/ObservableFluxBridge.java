@@ -0,0 +1,428 @@
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.reactivex.Observable;
+import io.reactivex.Observer;
+import io.reactivex.disposables.Disposable;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Adapts an RxJava {@link Observable}, which has no backpressure, to a {@link Flux} with as little per-element
+ * work as possible.
+ * <ul>
+ * <li>A scalar source (Observable.just) becomes Flux.just, without subscribing anything.</li>
+ * <li>A synchronous source supporting RxJava's queue fusion (fromIterable, fromArray, range...) is not
+ * subscribed in push mode at all: items are pulled with poll() only as downstream requests them, in batches as
+ * large as the outstanding demand, and at most one item is read ahead to detect completion.</li>
+ * <li>Any other source is pushed through a fast path: while downstream has demand and nothing is queued, an item
+ * goes straight to onNext; only items arriving without demand are queued, in a lock-free single-producer
+ * single-consumer queue.</li>
+ * </ul>
+ * observable.toFlowable(BUFFER) instead queues and drains every single item.
+ * <p>
+ * That queue is unbounded by default, so a fast Observable in front of a slow subscriber grows it until the JVM
+ * runs out of memory. {@link #from(Observable, int, OverflowPolicy, Metrics)} bounds it and applies an
+ * {@link OverflowPolicy} once it is full, reporting drops and the peak queue depth in {@link Metrics}.
+ */
+final class ObservableFluxBridge<T> extends Flux<T> {
+
+    enum OverflowPolicy {
+        /**
+         * Evict the oldest queued item to make room for the incoming one.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the incoming item.
+         */
+        DROP_NEWEST,
+        /**
+         * Discard everything queued and keep only the incoming item, so the subscriber resumes from the most
+         * recent value.
+         */
+        LATEST,
+        /**
+         * Cancel the Observable and signal an overflow error once pending items have been delivered.
+         */
+        FAIL
+    }
+
+    /**
+     * Counters of a bounded bridge, shared by all its subscriptions.
+     */
+    static final class Metrics {
+
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder overflowErrors = new LongAdder();
+        private final AtomicLong peakQueueDepth = new AtomicLong();
+
+        long droppedCount() {
+            return dropped.sum();
+        }
+
+        long overflowErrorCount() {
+            return overflowErrors.sum();
+        }
+
+        long peakQueueDepth() {
+            return peakQueueDepth.get();
+        }
+
+        @Override
+        public String toString() {
+            return "ObservableFluxBridge.Metrics{dropped=" + droppedCount() + ", overflowErrors="
+                    + overflowErrorCount() + ", peakQueueDepth=" + peakQueueDepth() + "}";
+        }
+
+        private void recordDepth(int depth) {
+            long peak;
+            while (depth > (peak = peakQueueDepth.get())) {
+                if (peakQueueDepth.compareAndSet(peak, depth)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private final Observable<T> source;
+    private final Supplier<Queue<T>> queueSupplier;
+
+    private ObservableFluxBridge(Observable<T> source, Supplier<Queue<T>> queueSupplier) {
+        this.source = source;
+        this.queueSupplier = queueSupplier;
+    }
+
+    static <T> Flux<T> from(Observable<T> source) {
+        if (RxJavaFusion.isScalar(source)) {
+            T value = RxJavaFusion.scalarValue(source);
+            return value == null ? Flux.empty() : Flux.just(value);
+        }
+        return new ObservableFluxBridge<>(source, Queues.<T>unbounded());
+    }
+
+    /**
+     * Like {@link #from(Observable)}, but queues at most {@code maxBuffer} items that arrived without demand.
+     */
+    static <T> Flux<T> from(Observable<T> source, int maxBuffer, OverflowPolicy overflowPolicy, Metrics metrics) {
+        if (maxBuffer <= 0) {
+            throw new IllegalArgumentException("maxBuffer must be positive, got " + maxBuffer);
+        }
+        return new ObservableFluxBridge<>(source, () -> new BoundedQueue<>(maxBuffer, overflowPolicy, metrics));
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        source.subscribe(new BridgeObserver<>(actual, queueSupplier));
+    }
+
+    private static final class BridgeObserver<T> implements Observer<T>, Subscription {
+
+        private final CoreSubscriber<? super T> actual;
+        private final Supplier<Queue<T>> queueSupplier;
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile long requested;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<BridgeObserver> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(BridgeObserver.class, "requested");
+
+        private Disposable upstream;
+        private RxJavaFusion.SyncSource<T> fused;
+        private T lookahead;
+        private Queue<T> queue;
+        private Throwable error;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+
+        BridgeObserver(CoreSubscriber<? super T> actual, Supplier<Queue<T>> queueSupplier) {
+            this.actual = actual;
+            this.queueSupplier = queueSupplier;
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            fused = RxJavaFusion.requestSyncFusion(d);
+            if (fused != null) {
+                actual.onSubscribe(this);
+                return;
+            }
+            queue = queueSupplier.get();
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done || cancelled) {
+                return;
+            }
+            if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+                long r = requested;
+                if (r != 0 && queue.isEmpty()) {
+                    actual.onNext(t);
+                    if (r != Long.MAX_VALUE) {
+                        REQUESTED.decrementAndGet(this);
+                    }
+                } else if (!queue.offer(t)) {
+                    overflow();
+                }
+                if (wip.decrementAndGet() == 0) {
+                    return;
+                }
+            } else {
+                if (!queue.offer(t)) {
+                    overflow();
+                }
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            drainLoop();
+        }
+
+        private void overflow() {
+            upstream.dispose();
+            error = Exceptions.failWithOverflow("Observable emitted more items than the bridge can buffer");
+            done = true;
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            error = e;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.dispose();
+            if (wip.getAndIncrement() == 0) {
+                if (queue != null) {
+                    queue.clear();
+                }
+                lookahead = null;
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            if (fused != null) {
+                drainFused();
+            } else {
+                drainQueue();
+            }
+        }
+
+        private void drainQueue() {
+            int missed = 1;
+            for (; ; ) {
+                long r = requested;
+                long e = 0;
+                while (e != r) {
+                    if (cancelled) {
+                        queue.clear();
+                        return;
+                    }
+                    boolean d = done;
+                    T v = queue.poll();
+                    if (v == null) {
+                        if (d) {
+                            terminate();
+                            return;
+                        }
+                        break;
+                    }
+                    actual.onNext(v);
+                    e++;
+                }
+                if (cancelled) {
+                    queue.clear();
+                    return;
+                }
+                if (done && queue.isEmpty()) {
+                    terminate();
+                    return;
+                }
+                if (e != 0) {
+                    Operators.produced(REQUESTED, this, e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void drainFused() {
+            int missed = 1;
+            for (; ; ) {
+                long r = requested;
+                long e = 0;
+                while (e != r) {
+                    if (cancelled) {
+                        return;
+                    }
+                    T v = lookahead;
+                    lookahead = null;
+                    if (v == null && (v = pollFused()) == null) {
+                        return;
+                    }
+                    actual.onNext(v);
+                    e++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                // demand is met: peek one item ahead so that completion is signalled without waiting for the
+                // next request
+                if (lookahead == null && (lookahead = pollFused()) == null) {
+                    return;
+                }
+                if (e != 0) {
+                    Operators.produced(REQUESTED, this, e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return the next item, or null once the source is exhausted or failed, in which case the matching
+         * terminal signal has been sent downstream
+         */
+        private T pollFused() {
+            T v;
+            try {
+                v = fused.poll();
+            } catch (Throwable ex) {
+                upstream.dispose();
+                actual.onError(Operators.onOperatorError(ex, actual.currentContext()));
+                return null;
+            }
+            if (v == null && !cancelled) {
+                actual.onComplete();
+            }
+            return v;
+        }
+
+        private void terminate() {
+            Throwable e = error;
+            if (e != null) {
+                actual.onError(e);
+            } else {
+                actual.onComplete();
+            }
+        }
+    }
+
+    /**
+     * Bounded queue applying an {@link OverflowPolicy} when full. Unlike the default single-producer
+     * single-consumer queue, the dropping policies make the producer remove items too, so access is guarded by
+     * the queue's monitor; it is only reached by items arriving without demand.
+     */
+    private static final class BoundedQueue<T> extends AbstractQueue<T> {
+
+        private final ArrayDeque<T> items;
+        private final int capacity;
+        private final OverflowPolicy overflowPolicy;
+        private final Metrics metrics;
+
+        BoundedQueue(int capacity, OverflowPolicy overflowPolicy, Metrics metrics) {
+            this.items = new ArrayDeque<>(Math.min(capacity, 1024));
+            this.capacity = capacity;
+            this.overflowPolicy = overflowPolicy;
+            this.metrics = metrics;
+        }
+
+        /**
+         * @return false only when the item was refused under {@link OverflowPolicy#FAIL}
+         */
+        @Override
+        public synchronized boolean offer(T t) {
+            if (items.size() >= capacity) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        items.pollFirst();
+                        metrics.dropped.increment();
+                        break;
+                    case DROP_NEWEST:
+                        metrics.dropped.increment();
+                        return true;
+                    case LATEST:
+                        metrics.dropped.add(items.size());
+                        items.clear();
+                        break;
+                    default:
+                        metrics.overflowErrors.increment();
+                        return false;
+                }
+            }
+            items.offerLast(t);
+            metrics.recordDepth(items.size());
+            return true;
+        }
+
+        @Override
+        public synchronized T poll() {
+            return items.pollFirst();
+        }
+
+        @Override
+        public synchronized T peek() {
+            return items.peekFirst();
+        }
+
+        @Override
+        public synchronized int size() {
+            return items.size();
+        }
+
+        @Override
+        public synchronized void clear() {
+            items.clear();
+        }
+
+        /**
+         * @return an iterator over a snapshot of the queued items, which does not support removal
+         */
+        @Override
+        public synchronized Iterator<T> iterator() {
+            return Collections.unmodifiableList(new ArrayList<>(items)).iterator();
+        }
+    }
+}
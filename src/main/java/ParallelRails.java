@@ -0,0 +1,57 @@
+import java.util.Comparator;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Runs a synchronous transformation on several rails of a {@link reactor.core.publisher.ParallelFlux}, so that a
+ * CPU-heavy map uses as many cores as there are rails instead of the single thread emitting the source.
+ * <p>
+ * The source is dealt to the rails round-robin, each rail transforming its share on a worker of the scheduler.
+ * Unordered, the rails are re-joined as their results come, which is the fastest. Ordered, each element is tagged
+ * with its index beforehand, and the rails, each sorted by index, are merged back by index: the output is in the
+ * order of the source, at the cost of two wrappers per element and of rails waiting for the slowest one.
+ * <p>
+ * An error on any rail cancels the others and is propagated; in ordered mode it may overtake results of elements
+ * preceding the one that failed.
+ */
+final class ParallelRails {
+
+    private ParallelRails() {
+    }
+
+    static <T, R> Flux<R> map(Flux<T> source, Function<? super T, ? extends R> mapper, int rails, Scheduler scheduler,
+                              boolean ordered) {
+        if (!ordered) {
+            return source.parallel(rails)
+                    .runOn(scheduler, Queues.SMALL_BUFFER_SIZE)
+                    .<R>map(mapper)
+                    .sequential();
+        }
+        return source.index(Indexed<T>::new)
+                .parallel(rails)
+                .runOn(scheduler, Queues.SMALL_BUFFER_SIZE)
+                .map(indexed -> indexed.<R>map(mapper))
+                .ordered(Comparator.comparingLong(indexed -> indexed.index))
+                .map(indexed -> indexed.value);
+    }
+
+    /**
+     * An element and its index in the source.
+     */
+    private static final class Indexed<V> {
+        final long index;
+        final V value;
+
+        Indexed(long index, V value) {
+            this.index = index;
+            this.value = value;
+        }
+
+        <R> Indexed<R> map(Function<? super V, ? extends R> mapper) {
+            return new Indexed<>(index, mapper.apply(value));
+        }
+    }
+}
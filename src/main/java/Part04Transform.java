@@ -6,6 +6,7 @@ import java.time.*;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Learn how to transform values.
@@ -14,22 +15,49 @@ import reactor.core.publisher.Mono;
  */
 public class Part04Transform {
 
+    /**
+     * Shared by every capitalisation below: it reuses already-uppercase fields and caches the uppercased
+     * instance of hot usernames, instead of allocating three Strings and a User per element.
+     */
+    private final UserCapitalizer capitalizer = new UserCapitalizer();
+
+    /**
+     * The remote service behind the async capitalisations. By default it is a stub with no latency, answering
+     * synchronously.
+     */
+    private final CapitalizeService capitalizeService;
+
+    Part04Transform() {
+        this(new StubCapitalizeService(Duration.ZERO, Duration.ZERO));
+    }
+
+    Part04Transform(CapitalizeService capitalizeService) {
+        this.capitalizeService = capitalizeService;
+    }
+
 //========================================================================================
 
     // TODO Capitalize the user username, firstname and lastname
     Mono<User> capitalizeOne(Mono<User> mono) {
-        return mono.map(user -> new
-                User(user.getUsername().toUpperCase(),
-                user.getFirstname().toUpperCase(), user.getLastname().toUpperCase()));
+        return mono.map(capitalizer::capitalize);
     }
 
 //========================================================================================
 
     // TODO Capitalize the users username, firstName and lastName
     Flux<User> capitalizeMany(Flux<User> flux) {
-        return flux.map(user -> new
-                User(user.getUsername().toUpperCase(),
-                user.getFirstname().toUpperCase(), user.getLastname().toUpperCase()));
+        return flux.map(capitalizer::capitalize);
+    }
+
+    /**
+     * Same, with the users capitalized on {@code rails} workers of the
+     * parallel scheduler. Ordered, the users are emitted in their order in
+     * the input Flux; unordered, as soon as they are capitalized. The rails
+     * share {@link #capitalizer}, whose cache entries are published whole,
+     * so a rail never reads a slot half-written by another.
+     */
+    Flux<User> capitalizeManyParallel(Flux<User> flux, int rails, boolean ordered) {
+        return ParallelRails.map(flux, capitalizer::capitalize, rails, Schedulers.parallel(), ordered);
     }
 
 //========================================================================================
@@ -63,10 +91,79 @@ public class Part04Transform {
     }
 
     Mono<User> asyncCapitalizeUser(User u) {
-        return Mono.just(new User(u.getUsername().toUpperCase(),
-                u.getFirstname().toUpperCase(), u.getLastname().toUpperCase()));
+        return capitalizeService.capitalize(u);
     }
 
-}
+//========================================================================================
+
+    private final LatencyHistogram asyncCapitalizeLatency = new LatencyHistogram();
 
+    /**
+     * A plain flatMap subscribes to up to 256 inner publishers at once, which is more than a real remote
+     * capitalisation service will take, and it emits results in completion order.
+     * <p>
+     * The concurrency argument of flatMap caps the number of calls in flight. flatMapSequential accepts the same
+     * cap but replays results in source order: a result that completes early is held until the ones before it
+     * are emitted, and since each inner Mono holds at most one value the reorder buffer never exceeds
+     * maxInFlight users.
+     * <p>
+     * Each call is timed into {@link #asyncCapitalizeLatency()}, whose percentiles are what maxInFlight should be
+     * tuned against.
+     */
+    Flux<User> asyncCapitalizeMany(Flux<User> flux, int maxInFlight, boolean ordered) {
+        if (ordered) {
+            return flux.flatMapSequential(this::timedAsyncCapitalizeUser, maxInFlight, 1);
+        }
+        return flux.flatMap(this::timedAsyncCapitalizeUser, maxInFlight);
+    }
 
+    LatencyHistogram asyncCapitalizeLatency() {
+        return asyncCapitalizeLatency;
+    }
+
+    private Mono<User> timedAsyncCapitalizeUser(User user) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return asyncCapitalizeUser(user).doOnTerminate(() -> asyncCapitalizeLatency.recordSince(start));
+        });
+    }
+
+//========================================================================================
+
+    /**
+     * Even with bounded concurrency, one call per user means one round-trip per user. Coalescing users into
+     * micro-batches with {@link MicroBatchFlux} amortises that round-trip: a batch is sent as soon as it holds
+     * maxBatchSize users, or once latencyBudget has elapsed since its first user, so a trickle of users is not
+     * delayed by more than the budget.
+     * <p>
+     * flatMapSequential keeps up to maxInFlightBatches batch calls running while replaying their results in
+     * source order, and flatMapIterable fans each batch back out to individual users.
+     */
+    Flux<User> asyncCapitalizeManyInBatches(Flux<User> flux, int maxBatchSize, Duration latencyBudget,
+                                            int maxInFlightBatches) {
+        return asyncCapitalizeManyInBatches(flux, this::asyncCapitalizeBatch, maxBatchSize, latencyBudget,
+                maxInFlightBatches);
+    }
+
+    Flux<User> asyncCapitalizeManyInBatches(Flux<User> flux, Function<List<User>, Mono<List<User>>> batchCall,
+                                            int maxBatchSize, Duration latencyBudget, int maxInFlightBatches) {
+        return MicroBatchFlux.of(flux, maxBatchSize, latencyBudget)
+                .flatMapSequential(batch -> batchCall.apply(batch)
+                                .doOnNext(capitalized -> {
+                                    if (capitalized.size() != batch.size()) {
+                                        throw new IllegalStateException("Batch of " + batch.size()
+                                                + " users answered with " + capitalized.size() + " users");
+                                    }
+                                }),
+                        maxInFlightBatches, 1)
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * One round-trip to the service for the whole batch.
+     */
+    Mono<List<User>> asyncCapitalizeBatch(List<User> users) {
+        return capitalizeService.capitalizeBatch(users);
+    }
+
+}
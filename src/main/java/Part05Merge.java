@@ -55,4 +55,49 @@ public class Part05Merge {
         return mono1.concatWith(mono2);
     }
 
-}
\ No newline at end of file
+//========================================================================================
+    /**
+     * Concat adds up the latencies of its sources, as flux2 is only
+     subscribed once flux1 completes; merge has no fairness, so a fast source
+     can starve a slow one. The next two subscribe to every source right away,
+     each buffering at most prefetch users, and then either keep the order of
+     the sources or take one user from each source in turn.
+     * */
+    Flux<User> mergeFluxWithEagerNoInterleave(Flux<User> flux1, Flux<User>
+            flux2) {
+        return BufferedMerge.ordered(Arrays.asList(flux1, flux2), PREFETCH);
+    }
+
+    Flux<User> mergeFluxWithFairInterleave(Flux<User> flux1, Flux<User>
+            flux2) {
+        return BufferedMerge.roundRobin(Arrays.asList(flux1, flux2), PREFETCH);
+    }
+
+    /**
+     * @param metrics receives the buffer occupancy of each source, in the
+     *                order of sources
+     */
+    Flux<User> mergeBuffered(List<Flux<User>> sources, BufferedMerge.Mode mode,
+                             int prefetch, BufferedMerge.Metrics metrics) {
+        return new BufferedMerge<>(sources, mode, prefetch, metrics);
+    }
+
+//========================================================================================
+    /**
+     * When every source is already sorted, eg. one per shard, they can be
+     merged into a sorted Flux without collecting and sorting everything:
+     only the next user of each source needs to be compared.
+     * */
+    Flux<User> mergeSortedFluxes(List<Flux<User>> sources,
+                                 Comparator<User> comparator) {
+        return new SortedMerge<>(sources, comparator, PREFETCH);
+    }
+
+    Flux<User> mergeSortedByUsername(List<Flux<User>> sources) {
+        return mergeSortedFluxes(sources,
+                Comparator.comparing(User::getUsername));
+    }
+
+    private static final int PREFETCH = 32;
+
+}
@@ -137,4 +137,20 @@ public class Part06Request {
                 .doOnComplete(() -> System.out.print("The end!"));
     }
 
-}
\ No newline at end of file
+//========================================================================================
+
+    /**
+     * Logging and printing every signal take a lock on stdout, serializing
+     * every pipeline doing it. To get the same insight in production, count
+     * the signals and record the element latencies instead, and read them
+     * when needed with metrics.snapshot().
+     */
+
+    final FluxMetrics metrics = new FluxMetrics("repository.findAll");
+
+    Flux<User> fluxWithMetrics() {
+        return repository.findAll()
+                .transform(metrics::instrument);
+    }
+
+}
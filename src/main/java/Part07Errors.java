@@ -17,9 +17,13 @@
 
 //generic imports to help with simpler IDEs (ie tech.io)
 
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Learn how to deal with errors.
@@ -37,6 +41,17 @@ public class Part07Errors {
         return mono.onErrorReturn(IllegalStateException.class, User.SAUL);
     }
 
+    /**
+     * Same fallback, but a struggling source is first retried with backoff,
+     * and is not called at all while its circuit breaker is open: the call
+     * then falls back to User.SAUL straight away.
+     */
+    Mono<User> betterCallSaulForBogusMono(Mono<User> mono,
+                                          CircuitBreaker breaker,
+                                          RetryBackoff retry) {
+        return betterCallSaulForBogusMono(retry.apply(breaker.protect(mono)));
+    }
+
 //========================================================================================
 
     /**
@@ -53,6 +68,13 @@ public class Part07Errors {
                 (throwable) -> Flux.just(User.SAUL, User.JESSE));
     }
 
+    Flux<User> betterCallSaulAndJesseForBogusFlux(Flux<User> flux,
+                                                  CircuitBreaker breaker,
+                                                  RetryBackoff retry) {
+        return betterCallSaulAndJesseForBogusFlux(
+                retry.apply(breaker.protect(flux)));
+    }
+
 //========================================================================================
 
     /**
@@ -75,25 +97,105 @@ public class Part07Errors {
 //    GetOutOfHereException error
 
     Flux<User> capitalizeMany(Flux<User> flux) {
-        return flux.map(user -> {
-            try {
-                return capitalizeUser(user);
-            } catch (GetOutOfHereException e) {
-                throw Exceptions.propagate(e);
-            }
-        });
+        return flux.map(this::capitalizeUserOrPropagate);
+    }
+
+    /**
+     * Same, on {@code rails} workers of the parallel scheduler. The first
+     * GetOutOfHereException cancels every rail.
+     */
+    Flux<User> capitalizeManyParallel(Flux<User> flux, int rails,
+                                      boolean ordered) {
+        return ParallelRails.map(flux, this::capitalizeUserOrPropagate, rails,
+                Schedulers.parallel(), ordered);
+    }
+
+    private User capitalizeUserOrPropagate(User user) {
+        try {
+            return capitalizeUser(user);
+        } catch (GetOutOfHereException e) {
+            throw Exceptions.propagate(e);
+        }
     }
 
     User capitalizeUser(User user) throws GetOutOfHereException {
-        if (user.equals(User.SAUL)) {
+        if (isRejected(user)) {
             throw new GetOutOfHereException();
         }
-        return new User(user.getUsername(), user.getFirstname(),
-                user.getLastname());
+        return capitalize(user);
+    }
+
+//========================================================================================
+
+    /**
+     * When rejections are expected rather than exceptional, failing the
+     * whole stream is not what we want, and neither is paying for an
+     * exception per rejected user. These variants check the user up front
+     * and report rejections as values.
+     */
+
+    private final LongAdder rejectedUsers = new LongAdder();
+
+    /**
+     * Emits one Result per user, in order: the capitalized user, or the
+     * rejected one.
+     */
+    Flux<Result<User>> capitalizeManyResults(Flux<User> flux) {
+        return flux.map(user -> isRejected(user)
+                ? Result.rejected(user) : Result.ok(capitalize(user)));
+    }
+
+    /**
+     * Emits the capitalized users and skips the rejected ones, which are
+     * counted and handed to {@code onRejected}.
+     */
+    Flux<User> capitalizeManySkippingRejected(Flux<User> flux,
+                                              Consumer<User> onRejected) {
+        return flux.handle((user, sink) -> {
+            if (isRejected(user)) {
+                rejectedUsers.increment();
+                onRejected.accept(user);
+            } else {
+                sink.next(capitalize(user));
+            }
+        });
     }
 
+    /**
+     * On long imports, neither failing the stream nor replacing its rest
+     * with a fallback is acceptable. Here, every user capitalizeUser fails
+     * on is routed to the dead-letter channel with its cause, and the other
+     * users are emitted in order.
+     */
+    Flux<User> capitalizeManyIsolated(Flux<User> flux,
+                                      DeadLetterChannel<User> deadLetters) {
+        return deadLetters.map(flux, this::capitalizeUser);
+    }
+
+    long rejectedCount() {
+        return rejectedUsers.sum();
+    }
+
+    private static boolean isRejected(User user) {
+        return user.equals(User.SAUL);
+    }
+
+    private static User capitalize(User user) {
+        return new User(UserCapitalizer.upperCase(user.getFirstname()),
+                UserCapitalizer.upperCase(user.getLastname()),
+                UserCapitalizer.upperCase(user.getUsername()));
+    }
+
+    /**
+     * Thrown for every rejected user, so it does not capture a stack trace:
+     * it would always point to {@link #capitalizeUser(User)} anyway.
+     */
     protected final class GetOutOfHereException extends Exception {
         private static final long serialVersionUID = 0L;
+
+        GetOutOfHereException() {
+            super(null, null, false, false);
+        }
     }
 
 }
\ No newline at end of file
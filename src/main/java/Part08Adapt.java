@@ -21,6 +21,7 @@ import java.util.function.*;
 import java.time.*;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import io.reactivex.Flowable;
 import io.reactivex.Observable;
@@ -28,7 +29,6 @@ import io.reactivex.Single;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import io.reactivex.BackpressureStrategy;
 
 /**
  * Learn how to adapt from/to RxJava 2 Observable/Single/Flowable and
@@ -67,8 +67,17 @@ public class Part08Adapt {
     }
 
     // TODO Adapt RxJava Observable to Flux
+    // toFlowable(BackpressureStrategy.BUFFER) queues every item; the bridge only queues items arriving without
+    // demand and pulls synchronous sources on demand
     Flux<User> fromObservableToFlux(Observable<User> observable) {
-        return Flux.from(observable.toFlowable(BackpressureStrategy.BUFFER));
+        return ObservableFluxBridge.from(observable);
+    }
+
+    // Same adaptation, but with a bounded buffer for items emitted while the Flux subscriber has no demand
+    Flux<User> fromObservableToFlux(Observable<User> observable, int maxBuffer,
+                                    ObservableFluxBridge.OverflowPolicy overflowPolicy,
+                                    ObservableFluxBridge.Metrics metrics) {
+        return ObservableFluxBridge.from(observable, maxBuffer, overflowPolicy, metrics);
     }
 
 //========================================================================================
@@ -80,19 +89,36 @@ public class Part08Adapt {
 
     // TODO Adapt RxJava Single to Mono
     Mono<User> fromSingleToMono(Single<User> single) {
-        return Mono.from(single.toFlowable());
+        return SingleMonoBridge.from(single);
     }
 
 //========================================================================================
 
+    // Unlike mono.toFuture() and Mono.fromFuture(future), the bridge propagates cancellation both ways and
+    // counts conversions still in flight
+    private final CompletableFutureBridge futures = new CompletableFutureBridge();
+
     // TODO Adapt Mono to Java 8+ CompletableFuture
     CompletableFuture<User> fromMonoToCompletableFuture(Mono<User> mono) {
-        return mono.toFuture();
+        return futures.toFuture(mono);
+    }
+
+    CompletableFuture<User> fromMonoToCompletableFuture(Mono<User> mono, Duration timeout, Executor completionExecutor) {
+        return futures.toFuture(mono, timeout, completionExecutor);
     }
 
     // TODO Adapt Java 8+ CompletableFuture to Mono
     Mono<User> fromCompletableFutureToMono(CompletableFuture<User> future) {
-        return Mono.fromFuture(future);
+        return futures.toMono(() -> future);
+    }
+
+    Mono<User> fromCompletableFutureToMono(Supplier<CompletableFuture<User>> futureSupplier, Duration timeout,
+                                           Executor completionExecutor) {
+        return futures.toMono(futureSupplier, timeout, completionExecutor);
+    }
+
+    CompletableFutureBridge futures() {
+        return futures;
     }
 
 }
\ No newline at end of file
@@ -26,8 +26,19 @@ public class Part09OtherOperations {
     // TODO Create a Flux of user from Flux of username, firstname and lastname.and
     Flux<User> userFluxFromStringFlux(Flux<String> usernameFlux,
                                       Flux<String> firstnameFlux, Flux<String> lastnameFlux) {
-        return Flux.zip(usernameFlux, firstnameFlux, lastnameFlux)
-                .map(it -> new User(it.getT1(), it.getT2(), it.getT3()));
+        // zip(...).map(...) allocates a Tuple3 per row, and passed the username as the firstname
+        return UserColumnZipper.zipColumns(usernameFlux, firstnameFlux, lastnameFlux);
+    }
+
+    /**
+     * For large columnar imports, each column can be given its own prefetch, and the metrics show how far
+     * apart the columns drift so the prefetches can be sized.
+     */
+    Flux<User> userFluxFromStringFlux(Flux<String> usernameFlux, Flux<String> firstnameFlux,
+                                      Flux<String> lastnameFlux, int usernamePrefetch, int firstnamePrefetch,
+                                      int lastnamePrefetch, UserColumnZipper.Metrics metrics) {
+        return new UserColumnZipper(usernameFlux, firstnameFlux, lastnameFlux, usernamePrefetch,
+                firstnamePrefetch, lastnamePrefetch, metrics);
     }
 
 //========================================================================================
@@ -44,6 +55,33 @@ public class Part09OtherOperations {
         return Flux.first(flux1, flux2);
     }
 
+//========================================================================================
+
+    /**
+     * Both methods above subscribe to the two sources eagerly, doubling the load on the backend for every call.
+     * Hedging subscribes to the primary only, and to the secondary only when the primary is slower than its
+     * usual p95.
+     */
+    private final HedgedRequests monoHedging = HedgedRequests.atP95();
+
+    private final HedgedRequests fluxHedging = HedgedRequests.atP95();
+
+    Mono<User> useFastestMonoHedged(Mono<User> primary, Mono<User> secondary) {
+        return monoHedging.hedge(primary, secondary);
+    }
+
+    Flux<User> useFastestFluxHedged(Flux<User> primary, Flux<User> secondary) {
+        return fluxHedging.hedge(primary, secondary);
+    }
+
+    HedgedRequests monoHedging() {
+        return monoHedging;
+    }
+
+    HedgedRequests fluxHedging() {
+        return fluxHedging;
+    }
+
 //========================================================================================
 
     // TODO Convert the input Flux<User> to a Mono<Void> that represents the complete signal of the flux
@@ -76,4 +114,12 @@ public class Part09OtherOperations {
         return mono.switchIfEmpty(Mono.just(User.JESSE));
     }
 
+    /**
+     * Same fallback for a lookup by username; repeated and concurrent lookups of the same username are served by the
+     * repository's cache.
+     */
+    Mono<User> findOrSkyler(CachingUserRepository repository, String username) {
+        return emptyToSkyler(repository.findByUsername(username));
+    }
+
 }
\ No newline at end of file
@@ -3,6 +3,7 @@
 import java.util.*;
 import java.util.function.*;
 import java.time.*;
+import java.util.stream.Stream;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -43,4 +44,43 @@ public class Part10ReactiveToBlocking {
         return flux.toIterable();
     }
 
-}
\ No newline at end of file
+//========================================================================================
+
+    /**
+     * Blocking without a timeout can hang a caller forever, and blocking a
+     * reactor thread stalls every pipeline scheduled on it. The bridge below
+     * requires a timeout, and refuses to block a non-blocking thread.
+     */
+    final ReactiveToBlockingBridge bridge =
+            new ReactiveToBlockingBridge(ReactiveToBlockingBridge.NonBlockingThreadPolicy.FAIL);
+
+    User monoToValue(Mono<User> mono, Duration timeout) {
+        return bridge.block(mono, timeout);
+    }
+
+    /**
+     * @param batchSize the number of users prefetched, and requested again
+     *                  as three quarters of them have been consumed
+     */
+    Iterable<User> fluxToValues(Flux<User> flux, Duration timeout, int batchSize) {
+        return bridge.toIterable(flux, timeout, batchSize);
+    }
+
+    /**
+     * The returned stream must be closed (eg. with try-with-resources) to
+     * cancel the flux if it is not fully consumed.
+     */
+    Stream<User> fluxToStream(Flux<User> flux, Duration timeout, int batchSize) {
+        return bridge.toStream(flux, timeout, batchSize);
+    }
+
+    /**
+     * For batch jobs draining millions of users: the consumer is handed whole
+     * chunks of users, and only waits and wakes up once per chunk instead of
+     * once per user.
+     */
+    Iterable<List<User>> fluxToChunks(Flux<User> flux, Duration timeout, int chunkSize) {
+        return bridge.toChunks(flux, timeout, chunkSize);
+    }
+
+}
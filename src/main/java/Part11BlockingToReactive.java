@@ -1,4 +1,10 @@
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
@@ -18,7 +24,63 @@ import reactor.core.scheduler.Schedulers;
  * @see Flux#publishOn(Scheduler)
  * @see Schedulers
  */
-class Part11BlockingToReactive {
+class Part11BlockingToReactive implements Disposable {
+
+    /**
+     * Schedulers.elastic() creates threads without limit, so a load spike can exhaust the host. Both bridges
+     * below offload onto a {@link BlockingBridgeScheduler} instead, whose thread and queue caps make them fail
+     * fast with a RejectedExecutionException rather than piling up threads.
+     */
+    private final BlockingBridgeScheduler blockingBridge;
+
+    private final BlockingBridgeScheduler batchWriteBridge;
+
+    Part11BlockingToReactive() {
+        this(BlockingBridgeScheduler.withDefaults("blocking-bridge"),
+                new BlockingBridgeScheduler("blocking-batch-writes", BATCH_WRITE_THREADS, BATCH_WRITE_QUEUE,
+                        BlockingBridgeScheduler.RejectionPolicy.ABORT));
+    }
+
+    /**
+     * Takes ownership of both bridges: they are disposed with this instance.
+     */
+    Part11BlockingToReactive(BlockingBridgeScheduler blockingBridge, BlockingBridgeScheduler batchWriteBridge) {
+        this.blockingBridge = blockingBridge;
+        this.batchWriteBridge = batchWriteBridge;
+    }
+
+    /**
+     * Opt-in mode for JDK 21+: blocking repository calls each run on their own virtual thread, so thousands of
+     * concurrent subscriptions no longer pin thousands of platform threads.
+     *
+     * @throws UnsupportedOperationException if the running JVM has no virtual threads
+     */
+    static Part11BlockingToReactive onVirtualThreads() {
+        return new Part11BlockingToReactive(BlockingBridgeScheduler.onVirtualThreads("blocking-bridge-vt"),
+                BlockingBridgeScheduler.onVirtualThreads("blocking-batch-writes-vt"));
+    }
+
+    BlockingBridgeScheduler blockingBridge() {
+        return blockingBridge;
+    }
+
+    BlockingBridgeScheduler batchWriteBridge() {
+        return batchWriteBridge;
+    }
+
+    /**
+     * Shuts down both bridges, failing the blocking calls still queued on them.
+     */
+    @Override
+    public void dispose() {
+        blockingBridge.dispose();
+        batchWriteBridge.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return blockingBridge.isDisposed() && batchWriteBridge.isDisposed();
+    }
 
 //========================================================================================
 
@@ -31,7 +93,19 @@ class Part11BlockingToReactive {
      */
     // TODO Create a Flux for reading all users from the blocking repository deferred until the flux is subscribed, and run it with an elastic scheduler
     Flux<User> blockingRepositoryToFlux(BlockingRepository<User> repository) {
-        return Flux.defer(() -> Flux.fromIterable(repository.findAll())).subscribeOn(Schedulers.elastic());
+        return Flux.defer(() -> Flux.fromIterable(repository.findAll())).subscribeOn(blockingBridge.scheduler());
+    }
+
+//========================================================================================
+
+    /**
+     * fromIterable(findAll()) holds the whole table on the heap before the first element is emitted. Reading
+     * through {@link BlockingRepository#stream()} instead pulls one row per requested element, so memory stays
+     * flat whatever the size of the table. Flux.fromStream closes the cursor on completion, error or cancel, and
+     * subscribeOn also moves the request calls, hence the row reads, onto the blocking bridge.
+     */
+    Flux<User> blockingRepositoryToStreamingFlux(BlockingRepository<User> repository) {
+        return Flux.fromStream(repository::stream).subscribeOn(blockingBridge.scheduler());
     }
 
 //========================================================================================
@@ -43,7 +117,53 @@ class Part11BlockingToReactive {
      */
     // TODO Insert users contained in the Flux parameter in the blocking repository using an elastic scheduler and return a Mono<Void> that signal the end of the operation
     Mono<Void> fluxToBlockingRepository(Flux<User> flux, BlockingRepository<User> repository) {
-        return flux.publishOn(Schedulers.elastic()).doOnNext(repository::save).then();
+        return flux.publishOn(blockingBridge.scheduler()).doOnNext(repository::save).then();
+    }
+
+//========================================================================================
+
+    static final int BATCH_WRITE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    static final int BATCH_WRITE_QUEUE = 1024;
+
+    /**
+     * Saving one user per blocking call caps a bulk import at the latency of a single round-trip. Grouping the
+     * sequence with {@link MicroBatchFlux}, and handing each group to {@link BlockingRepository#saveAll(List)},
+     * amortises that round-trip; flatMap's concurrency argument then bounds how many batches are written in
+     * parallel.
+     * <p>
+     * A failed batch does not abort the import: it is counted in the returned {@link BatchWriteReport} and the
+     * remaining batches keep flowing.
+     */
+    Mono<BatchWriteReport> fluxToBlockingRepositoryInBatches(Flux<User> flux, BlockingRepository<User> repository,
+                                                            int batchSize, Duration maxBatchDelay,
+                                                            int maxConcurrentBatches) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            LongAdder savedUsers = new LongAdder();
+            LongAdder failedUsers = new LongAdder();
+            LongAdder savedBatches = new LongAdder();
+            LongAdder failedBatches = new LongAdder();
+            AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+
+            return MicroBatchFlux.of(flux, batchSize, maxBatchDelay)
+                    .flatMap(batch -> Mono.fromRunnable(() -> repository.saveAll(batch))
+                                    .subscribeOn(batchWriteBridge.scheduler())
+                                    .doOnSuccess(done -> {
+                                        savedUsers.add(batch.size());
+                                        savedBatches.increment();
+                                    })
+                                    .onErrorResume(error -> {
+                                        failedUsers.add(batch.size());
+                                        failedBatches.increment();
+                                        lastFailure.set(error);
+                                        return Mono.empty();
+                                    }),
+                            maxConcurrentBatches)
+                    .then(Mono.fromSupplier(() -> new BatchWriteReport(savedUsers.sum(), failedUsers.sum(),
+                            savedBatches.sum(), failedBatches.sum(),
+                            Duration.ofNanos(System.nanoTime() - start), lastFailure.get())));
+        });
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,172 @@
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-through cache of {@link Mono} lookups, bounded in size with least-recently-used eviction and a time-to-live.
+ * <p>
+ * Concurrent misses for the same key are coalesced: the first one subscribes to the loader and the others subscribe
+ * to the same, shared, in-flight {@code Mono} instead of reaching the backend again. The in-flight entry is dropped
+ * as soon as the load terminates, so a failed load is retried by the next lookup rather than cached.
+ * <p>
+ * Empty results are not cached either: a missing key is looked up again the next time, as it may have been saved
+ * in between.
+ * <p>
+ * {@link #put(Object, Object)} and {@link #invalidate(Object)} are authoritative writes. They detach the load in
+ * flight for their key, if any, so later lookups do not join it, and mark it superseded so that it does not cache
+ * its value: it may have read the backend before that write. Loads of other keys are not affected.
+ */
+final class ReactiveCache<K, V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A load in flight, shared by the lookups coalesced on it.
+     */
+    private static final class Load<V> {
+        Mono<V> mono;
+        volatile boolean superseded;
+    }
+
+    private final Function<? super K, ? extends Mono<V>> loader;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, Load<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    ReactiveCache(int maxSize, Duration ttl, Function<? super K, ? extends Mono<V>> loader) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive, got " + maxSize);
+        }
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        // access-ordered, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    Mono<V> get(K key) {
+        return Mono.defer(() -> {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            AtomicReference<Load<V>> created = new AtomicReference<>();
+            Load<V> shared = inFlight.computeIfAbsent(key, k -> {
+                Load<V> load = new Load<>();
+                load.mono = Mono.defer(() -> loader.apply(k))
+                        .doOnNext(value -> putLoaded(k, value, load))
+                        .doFinally(signal -> inFlight.remove(k, load))
+                        .cache();
+                created.set(load);
+                return load;
+            });
+            if (shared == created.get()) {
+                misses.increment();
+            } else {
+                coalesced.increment();
+            }
+            return shared.mono;
+        });
+    }
+
+    V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt >= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Caches {@code value} as the current value of {@code key}, eg. after it has been written to the backend.
+     */
+    void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        supersedeLoad(key);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    void invalidate(K key) {
+        supersedeLoad(key);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    // marked before the write takes the lock, so a loaded value is either skipped or overwritten by that write
+    private void supersedeLoad(K key) {
+        Load<V> load = inFlight.remove(key);
+        if (load != null) {
+            load.superseded = true;
+        }
+    }
+
+    private void putLoaded(K key, V value, Load<V> load) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            if (!load.superseded) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that subscribed to the loader
+     */
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of lookups that joined a load already in flight for the same key
+     */
+    long coalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ReactiveCache{size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ", coalesced="
+                + coalesced() + "}";
+    }
+}
@@ -1,5 +1,17 @@
+import java.util.List;
+
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 interface ReactiveRepository<T> {
     Flux<T> findAll();
+
+    /**
+     * Streams the repository as pages of at most {@code pageSize} elements.
+     * A page is only read from the backing store once downstream requests it.
+     */
+    Flux<List<T>> findAll(int pageSize);
+
+    Mono<Void> save(Publisher<T> publisher);
 }
@@ -0,0 +1,275 @@
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Blocking reads of reactive sources, with a mandatory timeout and a guard against blocking a non-blocking thread.
+ * <p>
+ * Blocking a reactor thread (eg. parallel or single schedulers, or a Netty event loop) stalls every pipeline
+ * scheduled on it. Such calls either fail with an {@link IllegalStateException}, or are logged as a warning and let
+ * through, depending on the {@link NonBlockingThreadPolicy}.
+ * <p>
+ * Iterables and streams prefetch {@code batchSize} elements and request more as three quarters of them have been
+ * consumed; each wait for the next element is bounded by the timeout.
+ */
+final class ReactiveToBlockingBridge {
+
+    enum NonBlockingThreadPolicy {
+        /**
+         * Throw an {@link IllegalStateException}.
+         */
+        FAIL,
+        /**
+         * Log a warning and block anyway.
+         */
+        WARN
+    }
+
+    private static final Logger LOG = Loggers.getLogger(ReactiveToBlockingBridge.class);
+
+    private final NonBlockingThreadPolicy policy;
+
+    private final CompletableFutureBridge futures = new CompletableFutureBridge();
+
+    ReactiveToBlockingBridge(NonBlockingThreadPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * @return the value of {@code mono}, or {@code null} if it is empty
+     * @throws IllegalStateException if no signal is received within {@code timeout}, which cancels {@code mono}
+     */
+    <T> T block(Mono<T> mono, Duration timeout) {
+        checkBlockingAllowed("block");
+        CompletableFuture<T> future = futures.toFuture(mono);
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw timeout(timeout);
+        } catch (ExecutionException e) {
+            throw Exceptions.propagate(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Subscribes to {@code flux} on each call to {@link Iterable#iterator()}.
+     */
+    <T> Iterable<T> toIterable(Flux<T> flux, Duration timeout, int batchSize) {
+        checkBatchSize(batchSize);
+        return () -> subscribe(flux, timeout, batchSize);
+    }
+
+    /**
+     * Subscribes to {@code flux} right away; closing the stream cancels the subscription.
+     */
+    <T> Stream<T> toStream(Flux<T> flux, Duration timeout, int batchSize) {
+        checkBatchSize(batchSize);
+        BlockingIterator<T> iterator = subscribe(flux, timeout, batchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::dispose);
+    }
+
+    /**
+     * Subscribes to {@code flux} on each call to {@link Iterable#iterator()}, and hands out its elements in lists of
+     * {@code chunkSize}, the last one possibly smaller. Each wait for the next chunk is bounded by the timeout.
+     */
+    <T> Iterable<List<T>> toChunks(Flux<T> flux, Duration timeout, int chunkSize) {
+        return () -> {
+            ChunkedBlockingIterator<T> iterator = new ChunkedBlockingIterator<>(this, timeout, chunkSize);
+            flux.subscribe(iterator);
+            return iterator;
+        };
+    }
+
+    NonBlockingThreadPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * @throws IllegalStateException if called from a non-blocking thread with the {@link NonBlockingThreadPolicy#FAIL}
+     *                               policy
+     */
+    void checkBlockingAllowed(String operation) {
+        if (Schedulers.isInNonBlockingThread()) {
+            String message = operation + " is blocking, which is not supported in thread "
+                    + Thread.currentThread().getName();
+            if (policy == NonBlockingThreadPolicy.FAIL) {
+                throw new IllegalStateException(message);
+            }
+            LOG.warn(message);
+        }
+    }
+
+    private <T> BlockingIterator<T> subscribe(Flux<T> flux, Duration timeout, int batchSize) {
+        BlockingIterator<T> iterator = new BlockingIterator<>(this, timeout, batchSize);
+        flux.subscribe(iterator);
+        return iterator;
+    }
+
+    private static void checkBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive, got " + batchSize);
+        }
+    }
+
+    static IllegalStateException timeout(Duration timeout) {
+        return new IllegalStateException("Timeout on blocking read for " + timeout.toNanos() + " NANOSECONDS");
+    }
+
+    private static final class BlockingIterator<T> implements Iterator<T>, CoreSubscriber<T>, Disposable {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<BlockingIterator, Subscription> S =
+                AtomicReferenceFieldUpdater.newUpdater(BlockingIterator.class, Subscription.class, "s");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<BlockingIterator, Thread> WAITER =
+                AtomicReferenceFieldUpdater.newUpdater(BlockingIterator.class, Thread.class, "waiter");
+
+        private final ReactiveToBlockingBridge bridge;
+        private final Duration timeout;
+        private final int batchSize;
+        private final int limit;
+        private final Queue<T> queue;
+        private volatile Subscription s;
+        private volatile Thread waiter;
+        private volatile boolean done;
+        private Throwable error;
+        private int consumed;
+
+        BlockingIterator(ReactiveToBlockingBridge bridge, Duration timeout, int batchSize) {
+            this.bridge = bridge;
+            this.timeout = timeout;
+            this.batchSize = batchSize;
+            this.limit = batchSize - (batchSize >> 2);
+            this.queue = Queues.<T>get(batchSize).get();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.setOnce(S, this, s)) {
+                s.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (!queue.offer(t)) {
+                Operators.terminate(S, this);
+                onError(Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL));
+                return;
+            }
+            wakeUp();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            done = true;
+            wakeUp();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            wakeUp();
+        }
+
+        private void wakeUp() {
+            // a full barrier after publishing the element, paired with the waiter's re-check of the queue
+            Thread w = WAITER.getAndSet(this, null);
+            if (w != null) {
+                LockSupport.unpark(w);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+            bridge.checkBlockingAllowed("hasNext");
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (; ; ) {
+                boolean d = done;
+                if (!queue.isEmpty()) {
+                    return true;
+                }
+                if (d) {
+                    Throwable e = error;
+                    if (e != null) {
+                        throw Exceptions.propagate(e);
+                    }
+                    return false;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    dispose();
+                    throw timeout(timeout);
+                }
+                waiter = Thread.currentThread();
+                if (queue.isEmpty() && !done) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+                waiter = null;
+                if (Thread.interrupted()) {
+                    dispose();
+                    Thread.currentThread().interrupt();
+                    throw Exceptions.propagate(new InterruptedException());
+                }
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T t = queue.poll();
+            if (++consumed == limit) {
+                consumed = 0;
+                s.request(limit);
+            }
+            return t;
+        }
+
+        @Override
+        public void dispose() {
+            Operators.terminate(S, this);
+            queue.clear();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return s == Operators.cancelledSubscription();
+        }
+    }
+}
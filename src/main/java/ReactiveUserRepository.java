@@ -1,8 +1,101 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
 
+/**
+ * Concurrent in-memory store of {@link User}s, keyed by username and
+ * indexed by lastname so that lookups never scan the whole dataset.
+ * <p>
+ * {@link #findAll()} iterates the live key set lazily, so it only walks as
+ * many entries as downstream has requested and never copies the store;
+ * {@link #findAll(int)} does the same one page at a time.
+ */
 class ReactiveUserRepository implements ReactiveRepository<User> {
+
+    private final Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, User>> usersByLastname = new ConcurrentHashMap<>();
+
+    ReactiveUserRepository() {
+        this(User.SAUL, User.JESSE);
+    }
+
+    ReactiveUserRepository(User... users) {
+        for (User user : users) {
+            put(user);
+        }
+    }
+
     @Override
     public Flux<User> findAll() {
-        return null;
+        return Flux.defer(() -> Flux.fromIterable(usersByUsername.values()));
+    }
+
+    @Override
+    public Flux<List<User>> findAll(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive, got " + pageSize);
+        }
+        // generate() is invoked once per requested page, so at most one page
+        // is materialised ahead of the subscriber
+        return Flux.generate(() -> usersByUsername.values().iterator(),
+                (Iterator<User> cursor, SynchronousSink<List<User>> sink) -> {
+                    List<User> page = new ArrayList<>(pageSize);
+                    while (page.size() < pageSize && cursor.hasNext()) {
+                        page.add(cursor.next());
+                    }
+                    if (!page.isEmpty()) {
+                        sink.next(page);
+                    }
+                    if (!cursor.hasNext()) {
+                        sink.complete();
+                    }
+                    return cursor;
+                });
+    }
+
+    @Override
+    public Mono<Void> save(Publisher<User> userPublisher) {
+        return Flux.from(userPublisher).doOnNext(this::put).then();
+    }
+
+    Mono<User> findByUsername(String username) {
+        return Mono.fromSupplier(() -> usersByUsername.get(username));
+    }
+
+    Flux<User> findByLastname(String lastname) {
+        return Flux.defer(() -> Flux.fromIterable(
+                usersByLastname.getOrDefault(lastname, Collections.emptyMap()).values()));
+    }
+
+    int size() {
+        return usersByUsername.size();
+    }
+
+    private void put(User user) {
+        // compute() serialises writers per username, so the lastname index
+        // never keeps a stale entry for a user whose lastname changed
+        usersByUsername.compute(user.getUsername(), (username, previous) -> {
+            if (previous != null) {
+                usersByLastname.computeIfPresent(previous.getLastname(), (lastname, users) -> {
+                    users.remove(username);
+                    return users.isEmpty() ? null : users;
+                });
+            }
+            usersByLastname.compute(user.getLastname(), (lastname, users) -> {
+                Map<String, User> indexed = users != null ? users : new ConcurrentHashMap<>();
+                indexed.put(username, user);
+                return indexed;
+            });
+            return user;
+        });
     }
 }
@@ -0,0 +1,47 @@
+/**
+ * Outcome of processing one element: either the produced value, or the input element that was rejected.
+ * <p>
+ * Emitting a {@code Result} lets a pipeline report rejections as ordinary values instead of terminating with an
+ * error, and without allocating and throwing an exception for each of them.
+ */
+final class Result<T> {
+
+    private final T value;
+    private final T rejected;
+
+    private Result(T value, T rejected) {
+        this.value = value;
+        this.rejected = rejected;
+    }
+
+    static <T> Result<T> ok(T value) {
+        return new Result<>(value, null);
+    }
+
+    static <T> Result<T> rejected(T input) {
+        return new Result<>(null, input);
+    }
+
+    boolean isOk() {
+        return rejected == null;
+    }
+
+    /**
+     * @return the produced value, or {@code null} if the element was rejected
+     */
+    T value() {
+        return value;
+    }
+
+    /**
+     * @return the rejected input element, or {@code null} if it was processed
+     */
+    T rejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return isOk() ? "Ok(" + value + ")" : "Rejected(" + rejected + ")";
+    }
+}
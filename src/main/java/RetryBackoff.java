@@ -0,0 +1,88 @@
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Retries with exponential backoff and jitter.
+ * <p>
+ * The n-th retry waits {@code min(firstBackoff * 2^n, maxBackoff)}, shortened by a random share of up to
+ * {@code jitterFactor} of it so that callers failing together do not all retry together. Once {@code maxRetries}
+ * retries have failed, the last error is propagated as is.
+ * <p>
+ * A {@link CircuitBreakerOpenException} is never retried: the breaker is open precisely so that the source is left
+ * alone, and the caller should fall back straight away.
+ */
+final class RetryBackoff {
+
+    private final long maxRetries;
+    private final Duration firstBackoff;
+    private final Duration maxBackoff;
+    private final double jitterFactor;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    RetryBackoff(long maxRetries, Duration firstBackoff, Duration maxBackoff, double jitterFactor) {
+        if (jitterFactor < 0 || jitterFactor > 1) {
+            throw new IllegalArgumentException("jitterFactor must be between 0 and 1, got " + jitterFactor);
+        }
+        this.maxRetries = maxRetries;
+        this.firstBackoff = firstBackoff;
+        this.maxBackoff = maxBackoff;
+        this.jitterFactor = jitterFactor;
+    }
+
+    <T> Mono<T> apply(Mono<T> source) {
+        return source.retryWhen(this::companion);
+    }
+
+    <T> Flux<T> apply(Flux<T> source) {
+        return source.retryWhen(this::companion);
+    }
+
+    private Publisher<?> companion(Flux<Throwable> errors) {
+        return errors.index().concatMap(indexed -> {
+            long attempt = indexed.getT1();
+            Throwable error = indexed.getT2();
+            if (error instanceof CircuitBreakerOpenException) {
+                return Mono.error(error);
+            }
+            if (attempt >= maxRetries) {
+                exhausted.increment();
+                return Mono.error(error);
+            }
+            retries.increment();
+            return Mono.delay(backoff(attempt));
+        });
+    }
+
+    Duration backoff(long attempt) {
+        long max = maxBackoff.toNanos();
+        long first = firstBackoff.toNanos();
+        long nanos;
+        if (first == 0) {
+            nanos = 0;
+        } else if (attempt >= Long.numberOfLeadingZeros(first) - 1) {
+            // first << attempt would reach the sign bit, or wrap around past it
+            nanos = max;
+        } else {
+            nanos = Math.min(max, first << attempt);
+        }
+        long jitter = (long) (nanos * jitterFactor * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofNanos(nanos - jitter);
+    }
+
+    long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return the number of calls that failed after exhausting their retries
+     */
+    long exhausted() {
+        return exhausted.sum();
+    }
+}
@@ -0,0 +1,59 @@
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.fuseable.QueueDisposable;
+import io.reactivex.internal.fuseable.QueueFuseable;
+import io.reactivex.internal.fuseable.ScalarCallable;
+
+/**
+ * The only class relying on RxJava internals: the {@code io.reactivex.internal.fuseable} interfaces that let
+ * {@link ObservableFluxBridge} skip the push path for scalar and synchronous sources.
+ * <p>
+ * Internal packages carry no compatibility guarantee, even across patch releases. This is written against RxJava
+ * 2.2.2, the version pinned in the pom; check it still compiles and that fusion still kicks in before bumping it.
+ */
+final class RxJavaFusion {
+
+    /**
+     * A synchronous source fused in SYNC mode: its items are pulled rather than pushed.
+     */
+    interface SyncSource<T> {
+        /**
+         * @return the next item, or null once the source is exhausted
+         */
+        T poll() throws Exception;
+    }
+
+    private RxJavaFusion() {
+    }
+
+    /**
+     * @return true if {@code source} holds at most one value known at assembly time, eg. Observable.just/empty
+     */
+    static boolean isScalar(Object source) {
+        return source instanceof ScalarCallable;
+    }
+
+    /**
+     * @return the value of a source for which {@link #isScalar(Object)} is true, or null if it is empty
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T scalarValue(Object source) {
+        return ((ScalarCallable<T>) source).call();
+    }
+
+    /**
+     * Requests synchronous fusion from the disposable an Observable passed to onSubscribe.
+     *
+     * @return the fused source to poll, or null if the Observable does not support synchronous fusion, in which
+     * case it will push its items as usual
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SyncSource<T> requestSyncFusion(Disposable d) {
+        if (d instanceof QueueDisposable) {
+            QueueDisposable<T> qd = (QueueDisposable<T>) d;
+            if (qd.requestFusion(QueueFuseable.SYNC) == QueueFuseable.SYNC) {
+                return qd::poll;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+import io.reactivex.Single;
+import io.reactivex.SingleObserver;
+import io.reactivex.disposables.Disposable;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+/**
+ * Adapts an RxJava {@link Single} to a {@link Mono} by observing it directly, instead of going through
+ * single.toFlowable() and an extra Reactive Streams hop. The Mono side reuses Reactor's deferred-scalar
+ * subscriber, so it also supports fusion with the downstream operator.
+ */
+final class SingleMonoBridge<T> extends Mono<T> {
+
+    private final Single<T> source;
+
+    private SingleMonoBridge(Single<T> source) {
+        this.source = source;
+    }
+
+    static <T> Mono<T> from(Single<T> source) {
+        return new SingleMonoBridge<>(source);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        source.subscribe(new BridgeSingleObserver<>(actual));
+    }
+
+    private static final class BridgeSingleObserver<T> extends Operators.MonoSubscriber<T, T>
+            implements SingleObserver<T> {
+
+        private volatile Disposable upstream;
+
+        BridgeSingleObserver(CoreSubscriber<? super T> actual) {
+            super(actual);
+        }
+
+        @Override
+        public void onSubscribe(Disposable d) {
+            upstream = d;
+            actual.onSubscribe(this);
+        }
+
+        @Override
+        public void onSuccess(T value) {
+            complete(value);
+        }
+
+        @Override
+        public void cancel() {
+            super.cancel();
+            Disposable d = upstream;
+            if (d != null) {
+                d.dispose();
+            }
+        }
+    }
+}
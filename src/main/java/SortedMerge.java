@@ -0,0 +1,235 @@
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+/**
+ * Streaming k-way merge of sources that are each already sorted by {@code comparator}, emitting a single sorted
+ * sequence without collecting it.
+ * <p>
+ * The sources whose next item is known are kept in a binary heap ordered by that item, ties going to the first
+ * source so that the merge is stable. The smallest item can only be emitted once every source that has not
+ * completed has an item buffered: after each emission, the source it came from is pending until its next item
+ * arrives, and is then sifted back into the heap in O(log k). Each source buffers at most {@code prefetch} items,
+ * so the merge holds O(k * prefetch) items whatever the length of the sources.
+ * <p>
+ * The first error of any source cancels the others and is propagated right away. The order of the output is only
+ * sorted if each source is.
+ */
+final class SortedMerge<T> extends Flux<T> {
+
+    private final List<? extends Publisher<? extends T>> sources;
+    private final Comparator<? super T> comparator;
+    private final int prefetch;
+
+    SortedMerge(List<? extends Publisher<? extends T>> sources, Comparator<? super T> comparator, int prefetch) {
+        this.sources = sources;
+        this.comparator = comparator;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        MergeCoordinator<T> coordinator = new MergeCoordinator<>(actual, this);
+        actual.onSubscribe(coordinator);
+        for (int i = 0; i < coordinator.buffers.length && !coordinator.cancelled; i++) {
+            sources.get(i).subscribe(coordinator.buffers[i]);
+        }
+        coordinator.drainLoop();
+    }
+
+    private static final class MergeCoordinator<T> implements Subscription {
+
+        private final CoreSubscriber<? super T> actual;
+        private final Comparator<? super T> comparator;
+        private final SourceBuffer<T>[] buffers;
+        // held at 1 until every source is subscribed
+        private final AtomicInteger wip = new AtomicInteger(1);
+
+        private volatile long requested;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<MergeCoordinator> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(MergeCoordinator.class, "requested");
+
+        private volatile boolean cancelled;
+
+        // drain loop only: sources whose head is in the heap, and sources waiting for their next item
+        private final int[] heap;
+        private int heapSize;
+        private final int[] pending;
+        private int pendingCount;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        MergeCoordinator(CoreSubscriber<? super T> actual, SortedMerge<T> parent) {
+            this.actual = actual;
+            this.comparator = parent.comparator;
+            int k = parent.sources.size();
+            this.buffers = new SourceBuffer[k];
+            this.heap = new int[k];
+            this.pending = new int[k];
+            for (int i = 0; i < k; i++) {
+                buffers[i] = new SourceBuffer<>(parent.prefetch, this::drain, actual.currentContext());
+                pending[i] = i;
+            }
+            this.pendingCount = k;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelSources();
+            if (wip.getAndIncrement() == 0) {
+                clearSources();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                drainLoop();
+            }
+        }
+
+        private void drainLoop() {
+            int missed = 1;
+            for (; ; ) {
+                if (terminatedWithError()) {
+                    return;
+                }
+                long r = requested;
+                long e = 0;
+                for (; ; ) {
+                    if (cancelled) {
+                        clearSources();
+                        return;
+                    }
+                    if (!resolvePending()) {
+                        if (terminatedWithError()) {
+                            return;
+                        }
+                        break;
+                    }
+                    if (heapSize == 0) {
+                        actual.onComplete();
+                        return;
+                    }
+                    if (e == r) {
+                        break;
+                    }
+                    int source = heap[0];
+                    removeTop();
+                    pending[pendingCount++] = source;
+                    actual.onNext(buffers[source].poll());
+                    e++;
+                }
+                if (e != 0) {
+                    Operators.produced(REQUESTED, this, e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Moves the pending sources that have an item buffered into the heap, and drops the completed ones.
+         *
+         * @return true if no source is pending anymore, false if one is waiting for its next item or has failed
+         */
+        private boolean resolvePending() {
+            int i = 0;
+            while (i < pendingCount) {
+                int source = pending[i];
+                SourceBuffer<T> buffer = buffers[source];
+                boolean done = buffer.isDone();
+                if (!buffer.isEmpty()) {
+                    insert(source);
+                } else if (!done || buffer.error() != null) {
+                    i++;
+                    continue;
+                }
+                pending[i] = pending[--pendingCount];
+            }
+            return pendingCount == 0;
+        }
+
+        private boolean terminatedWithError() {
+            if (cancelled) {
+                clearSources();
+                return true;
+            }
+            for (SourceBuffer<T> buffer : buffers) {
+                Throwable error = buffer.isDone() ? buffer.error() : null;
+                if (error != null) {
+                    cancelSources();
+                    clearSources();
+                    actual.onError(error);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean less(int a, int b) {
+            int c = comparator.compare(buffers[a].peek(), buffers[b].peek());
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        private void insert(int source) {
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(source, heap[parent])) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = source;
+        }
+
+        private void removeTop() {
+            int last = heap[--heapSize];
+            int i = 0;
+            int half = heapSize >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!less(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+        }
+
+        private void cancelSources() {
+            for (SourceBuffer<T> buffer : buffers) {
+                buffer.cancel();
+            }
+        }
+
+        private void clearSources() {
+            for (SourceBuffer<T> buffer : buffers) {
+                buffer.clear();
+            }
+        }
+    }
+}
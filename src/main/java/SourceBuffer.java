@@ -0,0 +1,132 @@
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+/**
+ * Inner subscriber of an operator combining several sources: it prefetches up to {@code prefetch} items of one
+ * source into a single-producer single-consumer queue and calls back the operator's drain loop on every signal.
+ * <p>
+ * The queue is consumed by the operator's drain loop only, through {@link #peek()} and {@link #poll()}, and
+ * every three quarters of the prefetch consumed are requested again from the source, so a source never has more
+ * than {@code prefetch} items buffered.
+ */
+final class SourceBuffer<T> implements CoreSubscriber<T> {
+
+    private final Runnable drain;
+    private final Context context;
+    private final int prefetch;
+    private final int limit;
+    private final Queue<T> queue;
+
+    private volatile Subscription subscription;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<SourceBuffer, Subscription> SUBSCRIPTION =
+            AtomicReferenceFieldUpdater.newUpdater(SourceBuffer.class, Subscription.class, "subscription");
+
+    private volatile boolean done;
+    private Throwable error;
+    private int consumed;
+
+    SourceBuffer(int prefetch, Runnable drain, Context context) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch must be positive, got " + prefetch);
+        }
+        this.drain = drain;
+        this.context = context;
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+        this.queue = Queues.<T>get(prefetch).get();
+    }
+
+    @Override
+    public Context currentContext() {
+        return context;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (Operators.setOnce(SUBSCRIPTION, this, s)) {
+            s.request(prefetch);
+        }
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (!queue.offer(t)) {
+            onError(Operators.onOperatorError(subscription,
+                    Exceptions.failWithOverflow("Source emitted more than its prefetch of " + prefetch), t,
+                    context));
+            return;
+        }
+        drain.run();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        error = t;
+        done = true;
+        drain.run();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain.run();
+    }
+
+    T peek() {
+        return queue.peek();
+    }
+
+    /**
+     * Takes the next buffered item, replenishing the source's demand as the buffer empties.
+     */
+    T poll() {
+        T t = queue.poll();
+        if (t != null && ++consumed == limit) {
+            consumed = 0;
+            subscription.request(limit);
+        }
+        return t;
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return the error the source terminated with, only meaningful once {@link #isDone()}
+     */
+    Throwable error() {
+        return error;
+    }
+
+    /**
+     * @return true once the source has completed and every buffered item has been consumed
+     */
+    boolean isExhausted() {
+        return done && queue.isEmpty();
+    }
+
+    void cancel() {
+        Operators.terminate(SUBSCRIPTION, this);
+    }
+
+    void clear() {
+        queue.clear();
+    }
+}
@@ -0,0 +1,59 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Local {@link CapitalizeService} simulating a remote one: every call, single or batch, costs one
+ * {@code roundTrip} of latency, plus {@code perUserCost} for each user in the request. A call without latency
+ * answers synchronously, on the subscribing thread.
+ */
+final class StubCapitalizeService implements CapitalizeService {
+
+    private final Duration roundTrip;
+    private final Duration perUserCost;
+    private final LongAdder calls = new LongAdder();
+    private final UserCapitalizer capitalizer = new UserCapitalizer();
+
+    StubCapitalizeService(Duration roundTrip, Duration perUserCost) {
+        this.roundTrip = roundTrip;
+        this.perUserCost = perUserCost;
+    }
+
+    @Override
+    public Mono<User> capitalize(User user) {
+        return delay(latencyFor(1))
+                .doOnSubscribe(subscription -> calls.increment())
+                .map(tick -> capitalizer.capitalize(user));
+    }
+
+    @Override
+    public Mono<List<User>> capitalizeBatch(List<User> users) {
+        return delay(latencyFor(users.size()))
+                .doOnSubscribe(subscription -> calls.increment())
+                .map(tick -> {
+                    List<User> capitalized = new ArrayList<>(users.size());
+                    for (User user : users) {
+                        capitalized.add(capitalizer.capitalize(user));
+                    }
+                    return capitalized;
+                });
+    }
+
+    /**
+     * @return the number of round-trips made so far
+     */
+    long calls() {
+        return calls.sum();
+    }
+
+    private static Mono<Long> delay(Duration latency) {
+        return latency.isZero() ? Mono.just(0L) : Mono.delay(latency);
+    }
+
+    private Duration latencyFor(int users) {
+        return roundTrip.plus(perUserCost.multipliedBy(users));
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Uppercases the username, firstname and lastname of users while allocating as little as possible.
+ * <p>
+ * Fields that are already uppercase are reused as is, and a user whose fields all are is returned unchanged.
+ * Otherwise the result is kept in a small direct-mapped cache indexed by username, so hot usernames resolve to
+ * one canonical uppercased {@link User} instead of a fresh one per element. The cache is a fixed array of
+ * immutable (source, capitalized) entries, each published with a single write: a colliding username simply
+ * replaces the entry, and a reader always sees a source together with its own result. Only a cache miss
+ * allocates an entry.
+ */
+final class UserCapitalizer {
+
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final class Entry {
+        final User source;
+        final User capitalized;
+
+        Entry(User source, User capitalized) {
+            this.source = source;
+            this.capitalized = capitalized;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> cache;
+    private final int mask;
+
+    UserCapitalizer() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize number of cached users, rounded up to a power of two
+     */
+    UserCapitalizer(int cacheSize) {
+        int slots = Integer.highestOneBit(Math.max(1, cacheSize - 1)) << 1;
+        this.cache = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+    }
+
+    User capitalize(User user) {
+        String username = user.getUsername();
+        String firstname = user.getFirstname();
+        String lastname = user.getLastname();
+
+        int slot = username.hashCode() & mask;
+        Entry entry = cache.get(slot);
+        if (entry != null && sameFields(entry.source, username, firstname, lastname)) {
+            return entry.capitalized;
+        }
+
+        String upperUsername = upperCase(username);
+        String upperFirstname = upperCase(firstname);
+        String upperLastname = upperCase(lastname);
+        if (upperUsername == username && upperFirstname == firstname && upperLastname == lastname) {
+            return user;
+        }
+        User capitalized = new User(upperFirstname, upperLastname, upperUsername);
+        cache.set(slot, new Entry(user, capitalized));
+        return capitalized;
+    }
+
+    /**
+     * @return {@code value} itself when it has no lowercase character, its uppercase copy otherwise
+     */
+    static String upperCase(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                return value.toUpperCase(Locale.ROOT);
+            }
+            if (c >= 0x80) {
+                // outside ASCII a single char can expand (eg. sharp s), leave it to the JDK
+                String upper = value.toUpperCase(Locale.ROOT);
+                return upper.equals(value) ? value : upper;
+            }
+        }
+        return value;
+    }
+
+    private static boolean sameFields(User source, String username, String firstname, String lastname) {
+        return source.getUsername().equals(username) && source.getFirstname().equals(firstname)
+                && source.getLastname().equals(lastname);
+    }
+}
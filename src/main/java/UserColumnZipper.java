@@ -0,0 +1,243 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Zips a username, a firstname and a lastname column into {@link User}s, one row at a time.
+ * <p>
+ * Flux.zip(...).map(...) builds a Tuple3 for every row before the User, and uses the same prefetch for every
+ * source. This operator builds the User straight from the three column buffers, and each column gets its own
+ * prefetch: a column known to lag can be given a small one, so the others are not made to buffer far ahead of
+ * it. {@link Metrics} reports how far apart the columns get.
+ */
+final class UserColumnZipper extends Flux<User> {
+
+    static final int USERNAME = 0;
+    static final int FIRSTNAME = 1;
+    static final int LASTNAME = 2;
+
+    /**
+     * Column skew observed by a zipper, shared by all its subscriptions.
+     */
+    static final class Metrics {
+
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong maxSkew = new AtomicLong();
+        private final AtomicLongArray peakDepth = new AtomicLongArray(3);
+
+        long rows() {
+            return rows.get();
+        }
+
+        /**
+         * @return the largest difference seen between the most and the least buffered column
+         */
+        long maxSkew() {
+            return maxSkew.get();
+        }
+
+        /**
+         * @param column one of {@link #USERNAME}, {@link #FIRSTNAME} or {@link #LASTNAME}
+         * @return the largest number of items seen buffered for that column
+         */
+        long peakDepth(int column) {
+            return peakDepth.get(column);
+        }
+
+        @Override
+        public String toString() {
+            return "UserColumnZipper.Metrics{rows=" + rows() + ", maxSkew=" + maxSkew()
+                    + ", peakDepth[username=" + peakDepth(USERNAME) + ", firstname=" + peakDepth(FIRSTNAME)
+                    + ", lastname=" + peakDepth(LASTNAME) + "]}";
+        }
+
+        private void record(int usernames, int firstnames, int lastnames) {
+            long skew = Math.max(usernames, Math.max(firstnames, lastnames))
+                    - Math.min(usernames, Math.min(firstnames, lastnames));
+            accumulateMax(maxSkew, skew);
+            accumulateMax(peakDepth, USERNAME, usernames);
+            accumulateMax(peakDepth, FIRSTNAME, firstnames);
+            accumulateMax(peakDepth, LASTNAME, lastnames);
+        }
+
+        private static void accumulateMax(AtomicLong max, long value) {
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+                // retry
+            }
+        }
+
+        private static void accumulateMax(AtomicLongArray max, int index, long value) {
+            long current;
+            while (value > (current = max.get(index)) && !max.compareAndSet(index, current, value)) {
+                // retry
+            }
+        }
+    }
+
+    private final Publisher<String> usernames;
+    private final Publisher<String> firstnames;
+    private final Publisher<String> lastnames;
+    private final int usernamePrefetch;
+    private final int firstnamePrefetch;
+    private final int lastnamePrefetch;
+    private final Metrics metrics;
+
+    UserColumnZipper(Publisher<String> usernames, Publisher<String> firstnames, Publisher<String> lastnames,
+                     int usernamePrefetch, int firstnamePrefetch, int lastnamePrefetch, Metrics metrics) {
+        this.usernames = usernames;
+        this.firstnames = firstnames;
+        this.lastnames = lastnames;
+        this.usernamePrefetch = usernamePrefetch;
+        this.firstnamePrefetch = firstnamePrefetch;
+        this.lastnamePrefetch = lastnamePrefetch;
+        this.metrics = metrics;
+    }
+
+    static Flux<User> zipColumns(Publisher<String> usernames, Publisher<String> firstnames, Publisher<String> lastnames) {
+        int prefetch = Queues.SMALL_BUFFER_SIZE;
+        return new UserColumnZipper(usernames, firstnames, lastnames, prefetch, prefetch, prefetch, new Metrics());
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super User> actual) {
+        ZipCoordinator coordinator = new ZipCoordinator(actual, this);
+        actual.onSubscribe(coordinator);
+        usernames.subscribe(coordinator.usernames);
+        firstnames.subscribe(coordinator.firstnames);
+        lastnames.subscribe(coordinator.lastnames);
+    }
+
+    private static final class ZipCoordinator implements Subscription {
+
+        private final CoreSubscriber<? super User> actual;
+        private final Metrics metrics;
+        private final SourceBuffer<String> usernames;
+        private final SourceBuffer<String> firstnames;
+        private final SourceBuffer<String> lastnames;
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile long requested;
+        private static final AtomicLongFieldUpdater<ZipCoordinator> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ZipCoordinator.class, "requested");
+
+        private volatile boolean cancelled;
+
+        ZipCoordinator(CoreSubscriber<? super User> actual, UserColumnZipper parent) {
+            this.actual = actual;
+            this.metrics = parent.metrics;
+            this.usernames = new SourceBuffer<>(parent.usernamePrefetch, this::drain, actual.currentContext());
+            this.firstnames = new SourceBuffer<>(parent.firstnamePrefetch, this::drain, actual.currentContext());
+            this.lastnames = new SourceBuffer<>(parent.lastnamePrefetch, this::drain, actual.currentContext());
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelSources();
+            if (wip.getAndIncrement() == 0) {
+                clearSources();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                metrics.record(usernames.size(), firstnames.size(), lastnames.size());
+                long r = requested;
+                long e = 0;
+                while (e != r) {
+                    if (terminated()) {
+                        metrics.rows.addAndGet(e);
+                        return;
+                    }
+                    if (usernames.isEmpty() || firstnames.isEmpty() || lastnames.isEmpty()) {
+                        break;
+                    }
+                    actual.onNext(new User(firstnames.poll(), lastnames.poll(), usernames.poll()));
+                    e++;
+                }
+                if (e == r && terminated()) {
+                    metrics.rows.addAndGet(e);
+                    return;
+                }
+                if (e != 0) {
+                    metrics.rows.addAndGet(e);
+                    Operators.produced(REQUESTED, this, e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Signals the terminal event once cancelled, once a column failed, or once a column is exhausted: no
+         * further row can be completed then.
+         */
+        private boolean terminated() {
+            if (cancelled) {
+                clearSources();
+                return true;
+            }
+            Throwable error = firstError();
+            if (error != null) {
+                cancelSources();
+                clearSources();
+                actual.onError(error);
+                return true;
+            }
+            if (usernames.isExhausted() || firstnames.isExhausted() || lastnames.isExhausted()) {
+                cancelSources();
+                clearSources();
+                actual.onComplete();
+                return true;
+            }
+            return false;
+        }
+
+        private Throwable firstError() {
+            Throwable error = errorOf(usernames);
+            if (error == null) {
+                error = errorOf(firstnames);
+            }
+            return error != null ? error : errorOf(lastnames);
+        }
+
+        private static Throwable errorOf(SourceBuffer<String> column) {
+            return column.isDone() ? column.error() : null;
+        }
+
+        private void cancelSources() {
+            usernames.cancel();
+            firstnames.cancel();
+            lastnames.cancel();
+        }
+
+        private void clearSources() {
+            usernames.clear();
+            firstnames.clear();
+            lastnames.clear();
+        }
+    }
+}
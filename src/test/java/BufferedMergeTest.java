@@ -0,0 +1,110 @@
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BufferedMergeTest {
+
+    @Test
+    void emitsSourcesInOrderWhileSubscribingThemEagerly() {
+        TestPublisher<Integer> first = TestPublisher.create();
+        TestPublisher<Integer> second = TestPublisher.create();
+
+        StepVerifier.create(BufferedMerge.ordered(Arrays.asList(first.flux(), second.flux()), 4))
+                .then(() -> {
+                    first.assertWasSubscribed();
+                    second.assertWasSubscribed();
+                    second.next(10, 11);
+                    first.next(1);
+                })
+                .expectNext(1)
+                .then(() -> first.next(2).complete())
+                .expectNext(2, 10, 11)
+                .then(second::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    void takesOneItemFromEachSourceInTurn() {
+        List<Flux<Integer>> sources = Arrays.asList(Flux.just(1, 2, 3), Flux.just(10), Flux.just(20, 21));
+
+        StepVerifier.create(BufferedMerge.roundRobin(sources, 4))
+                .expectNext(1, 10, 20, 2, 21, 3)
+                .verifyComplete();
+    }
+
+    @Test
+    void requestsEachSourceWithinItsPrefetch() {
+        List<Long> firstRequests = new CopyOnWriteArrayList<>();
+        List<Long> secondRequests = new CopyOnWriteArrayList<>();
+        BufferedMerge<Integer> merge = BufferedMerge.ordered(Arrays.asList(
+                Flux.range(0, 10).doOnRequest(firstRequests::add),
+                Flux.range(10, 10).doOnRequest(secondRequests::add)), 4);
+
+        StepVerifier.create(merge, 2)
+                .expectNext(0, 1)
+                .expectNoEvent(Duration.ZERO)
+                .then(() -> {
+                    assertThat(secondRequests).containsExactly(4L);
+                    assertThat(merge.bufferMetrics().peakDepth(1)).isEqualTo(4);
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(18)
+                .verifyComplete();
+
+        assertThat(firstRequests.get(0)).isEqualTo(4);
+        assertThat(firstRequests).allMatch(n -> n <= 4);
+        assertThat(secondRequests).allMatch(n -> n <= 4);
+        assertThat(merge.bufferMetrics().emitted(0)).isEqualTo(10);
+        assertThat(merge.bufferMetrics().emitted(1)).isEqualTo(10);
+    }
+
+    @Test
+    void cancelsEverySourceMidStream() {
+        TestPublisher<Integer> first = TestPublisher.create();
+        TestPublisher<Integer> second = TestPublisher.create();
+
+        StepVerifier.create(BufferedMerge.roundRobin(Arrays.asList(first.flux(), second.flux()), 4))
+                .then(() -> first.next(1))
+                .expectNext(1)
+                .thenCancel()
+                .verify();
+
+        first.assertCancelled();
+        second.assertCancelled();
+    }
+
+    @Test
+    void propagatesFirstErrorRightAwayAndCancelsTheOthers() {
+        TestPublisher<Integer> first = TestPublisher.create();
+        TestPublisher<Integer> second = TestPublisher.create();
+
+        StepVerifier.create(BufferedMerge.ordered(Arrays.asList(first.flux(), second.flux()), 4))
+                .then(() -> {
+                    first.next(1);
+                    second.error(new IllegalStateException("boom"));
+                })
+                .expectNext(1)
+                .verifyErrorMessage("boom");
+
+        first.assertCancelled();
+    }
+
+    @Test
+    void skipsEmptySources() {
+        StepVerifier.create(BufferedMerge.ordered(Arrays.asList(Flux.<Integer>empty(), Flux.just(1), Flux.empty()), 4))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(BufferedMerge.roundRobin(Arrays.asList(Flux.<Integer>empty(), Flux.<Integer>empty()), 4))
+                .verifyComplete();
+        StepVerifier.create(BufferedMerge.ordered(Arrays.<Flux<Integer>>asList(), 4))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,111 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedBlockingIteratorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ReactiveToBlockingBridge bridge =
+            new ReactiveToBlockingBridge(ReactiveToBlockingBridge.NonBlockingThreadPolicy.FAIL);
+
+    @Test
+    void handsOutFullChunksThenTheRest() {
+        assertThat(bridge.toChunks(Flux.range(1, 7), TIMEOUT, 3))
+                .containsExactly(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7));
+    }
+
+    @Test
+    void requestsTwoChunksAheadThenOneChunkPerChunkConsumed() {
+        List<Long> requests = new CopyOnWriteArrayList<>();
+        Iterator<List<Integer>> chunks = bridge.toChunks(Flux.range(1, 20).doOnRequest(requests::add), TIMEOUT, 4)
+                .iterator();
+
+        assertThat(requests).containsExactly(8L);
+        assertThat(chunks.next()).containsExactly(1, 2, 3, 4);
+        assertThat(requests).containsExactly(8L, 4L);
+        assertThat(chunks.next()).containsExactly(5, 6, 7, 8);
+        assertThat(requests).containsExactly(8L, 4L, 4L);
+    }
+
+    @Test
+    void feedsChunksToFluxUnderBoundedRequests() {
+        StepVerifier.create(Flux.fromIterable(bridge.toChunks(Flux.range(1, 5), TIMEOUT, 2)), 1)
+                .expectNext(Arrays.asList(1, 2))
+                .expectNoEvent(Duration.ZERO)
+                .thenRequest(2)
+                .expectNext(Arrays.asList(3, 4), Arrays.asList(5))
+                .verifyComplete();
+    }
+
+    @Test
+    void deliversAsyncProducerInOrder() {
+        List<Integer> received = new ArrayList<>();
+        for (List<Integer> chunk : bridge.toChunks(Flux.range(0, 100_000).publishOn(Schedulers.single(), 64),
+                TIMEOUT, 100)) {
+            received.addAll(chunk);
+        }
+
+        assertThat(received).hasSize(100_000);
+        for (int i = 0; i < received.size(); i++) {
+            assertThat(received.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void cancelsUpstreamOnDispose() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ChunkedBlockingIterator<Integer> chunks = (ChunkedBlockingIterator<Integer>) bridge
+                .toChunks(Flux.range(1, 100).doOnCancel(() -> cancelled.set(true)), TIMEOUT, 2)
+                .iterator();
+
+        assertThat(chunks.next()).containsExactly(1, 2);
+        chunks.dispose();
+
+        assertThat(cancelled).isTrue();
+        assertThat(chunks.isDisposed()).isTrue();
+    }
+
+    @Test
+    void throwsErrorAfterTheChunksCompletedBeforeIt() {
+        Flux<Integer> source = Flux.just(1, 2, 3).concatWith(Flux.error(new IllegalStateException("boom")));
+        Iterator<List<Integer>> chunks = bridge.toChunks(source, TIMEOUT, 2).iterator();
+
+        assertThat(chunks.next()).containsExactly(1, 2);
+        assertThatThrownBy(chunks::hasNext).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    void hasNoChunkForEmptySource() {
+        assertThat(bridge.toChunks(Flux.<Integer>empty(), TIMEOUT, 3).iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    void timesOutAndCancelsSilentSource() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Iterator<List<Integer>> chunks = bridge
+                .toChunks(Flux.<Integer>never().doOnCancel(() -> cancelled.set(true)), Duration.ofMillis(50), 3)
+                .iterator();
+
+        assertThatThrownBy(chunks::hasNext).isInstanceOf(IllegalStateException.class).hasMessageStartingWith("Timeout");
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void rejectsChunkSizeOutOfRange() {
+        assertThatThrownBy(() -> bridge.toChunks(Flux.range(1, 3), TIMEOUT, 0).iterator())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
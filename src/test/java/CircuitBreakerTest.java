@@ -0,0 +1,90 @@
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Mono<String> FAILING = Mono.error(new IllegalStateException("boom"));
+
+    @Test
+    void opensAfterConsecutiveFailuresAndShortCircuits() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, Duration.ofMinutes(1));
+
+        StepVerifier.create(breaker.protect(FAILING)).verifyError(IllegalStateException.class);
+        StepVerifier.create(breaker.protect(FAILING)).verifyError(IllegalStateException.class);
+        StepVerifier.create(breaker.protect(Mono.just("ok"))).verifyError(CircuitBreakerOpenException.class);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.shortCircuited()).isEqualTo(1);
+    }
+
+    @Test
+    void closesOnlyOnceEveryTrialSucceeded() {
+        CircuitBreaker breaker = openBreaker(2);
+        MonoProcessor<String> first = MonoProcessor.create();
+        MonoProcessor<String> second = MonoProcessor.create();
+
+        StepVerifier.create(breaker.protect(first))
+                .then(() -> StepVerifier.create(breaker.protect(second))
+                        .then(() -> {
+                            StepVerifier.create(breaker.protect(Mono.just("ok")))
+                                    .verifyError(CircuitBreakerOpenException.class);
+                            first.onNext("one");
+                            assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+                            second.onNext("two");
+                        })
+                        .expectNext("two")
+                        .verifyComplete())
+                .expectNext("one")
+                .verifyComplete();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.transitionsTo(CircuitBreaker.State.CLOSED)).isEqualTo(1);
+    }
+
+    @Test
+    void reopensOnAnyTrialFailureEvenAfterATrialSucceeded() {
+        CircuitBreaker breaker = openBreaker(2);
+        MonoProcessor<String> failing = MonoProcessor.create();
+
+        StepVerifier.create(breaker.protect(failing))
+                .then(() -> {
+                    StepVerifier.create(breaker.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+                    failing.onError(new IllegalStateException("boom"));
+                })
+                .verifyError(IllegalStateException.class);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.transitionsTo(CircuitBreaker.State.CLOSED)).isZero();
+        assertThat(breaker.transitionsTo(CircuitBreaker.State.OPEN)).isEqualTo(2);
+    }
+
+    @Test
+    void cancelledTrialLetsAnotherCallTakeItsPlace() {
+        CircuitBreaker breaker = openBreaker(1);
+
+        StepVerifier.create(breaker.protect(Mono.<String>never()))
+                .then(() -> StepVerifier.create(breaker.protect(Mono.just("ok")))
+                        .verifyError(CircuitBreakerOpenException.class))
+                .thenCancel()
+                .verify();
+        StepVerifier.create(breaker.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    /**
+     * @return a breaker opened by one failure, half-open on its next call
+     */
+    private static CircuitBreaker openBreaker(int trialCalls) {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, Duration.ZERO, trialCalls);
+        StepVerifier.create(breaker.protect(FAILING)).verifyError(IllegalStateException.class);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FluxMetricsTest {
+
+    @Test
+    void instrumentsFuseableSourceFollowedByFuseableOperator() {
+        FluxMetrics metrics = new FluxMetrics("fuseable");
+
+        StepVerifier.create(metrics.instrument(Flux.range(0, 10)).take(5))
+                .expectNext(0, 1, 2, 3, 4)
+                .verifyComplete();
+        StepVerifier.create(metrics.instrument(Flux.just(1, 2, 3)).map(i -> i * 10))
+                .expectNext(10, 20, 30)
+                .verifyComplete();
+
+        FluxMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.subscribed).isEqualTo(2);
+        assertThat(snapshot.next).isEqualTo(8);
+        assertThat(snapshot.active()).isZero();
+    }
+
+    @Test
+    void countsBoundedRequests() {
+        FluxMetrics metrics = new FluxMetrics("requests");
+
+        StepVerifier.create(metrics.instrument(Flux.range(0, 10)), 3)
+                .expectNext(0, 1, 2)
+                .thenRequest(7)
+                .expectNextCount(7)
+                .verifyComplete();
+
+        FluxMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.requested).isEqualTo(10);
+        assertThat(snapshot.unboundedRequests).isZero();
+        assertThat(snapshot.completed).isEqualTo(1);
+    }
+
+    @Test
+    void countsRepeatedCancelOnce() {
+        FluxMetrics metrics = new FluxMetrics("cancel");
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+        metrics.instrument(Flux.<Integer>never()).subscribe(new BaseSubscriber<Integer>() {
+            @Override
+            protected void hookOnSubscribe(Subscription s) {
+                subscription.set(s);
+            }
+        });
+
+        subscription.get().cancel();
+        subscription.get().cancel();
+
+        FluxMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.cancelled).isEqualTo(1);
+        assertThat(snapshot.active()).isZero();
+    }
+
+    @Test
+    void countsCancelRacingCompletionOnce() throws InterruptedException {
+        FluxMetrics metrics = new FluxMetrics("race");
+        int subscriptions = 2_000;
+        for (int i = 0; i < subscriptions; i++) {
+            AtomicReference<Subscription> subscription = new AtomicReference<>();
+            CountDownLatch start = new CountDownLatch(1);
+            metrics.instrument(Flux.just(1).delayUntil(value -> Flux.empty()).hide())
+                    .subscribe(new BaseSubscriber<Integer>() {
+                        @Override
+                        protected void hookOnSubscribe(Subscription s) {
+                            subscription.set(s);
+                        }
+                    });
+            Thread canceller = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                subscription.get().cancel();
+            });
+            canceller.start();
+            start.countDown();
+            subscription.get().request(1);
+            canceller.join();
+        }
+
+        FluxMetrics.Snapshot snapshot = metrics.snapshot();
+        assertThat(snapshot.subscribed).isEqualTo(subscriptions);
+        assertThat(snapshot.completed + snapshot.cancelled).isEqualTo(subscriptions);
+        assertThat(snapshot.active()).isZero();
+    }
+
+    @Test
+    void countsErrors() {
+        FluxMetrics metrics = new FluxMetrics("errors");
+
+        StepVerifier.create(metrics.instrument(Flux.<Integer>error(new IllegalStateException("boom"))))
+                .verifyError(IllegalStateException.class);
+
+        assertThat(metrics.snapshot().errors).isEqualTo(1);
+        assertThat(metrics.snapshot().active()).isZero();
+    }
+}
@@ -0,0 +1,106 @@
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MicroBatchFluxTest {
+
+    private final VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+
+    @Test
+    void closesBatchesAtMaxSize() {
+        StepVerifier.create(MicroBatchFlux.of(Flux.range(1, 7), 3, Duration.ofSeconds(1), timer, 2))
+                .expectNext(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7))
+                .verifyComplete();
+    }
+
+    @Test
+    void boundsUpstreamDemandByPrefetchedBatches() {
+        List<Long> upstreamRequests = new CopyOnWriteArrayList<>();
+        Flux<Integer> source = Flux.range(1, 10).doOnRequest(upstreamRequests::add);
+
+        StepVerifier.create(MicroBatchFlux.of(source, 2, Duration.ofSeconds(1), timer, 2), 1)
+                .expectNext(Arrays.asList(1, 2))
+                .then(() -> assertThat(upstreamRequests).containsExactly(4L, 2L))
+                .thenRequest(1)
+                .expectNext(Arrays.asList(3, 4))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(Arrays.asList(5, 6), Arrays.asList(7, 8), Arrays.asList(9, 10))
+                .verifyComplete();
+    }
+
+    @Test
+    void closesBatchOnceMaxDelayHasElapsed() {
+        TestPublisher<Integer> source = TestPublisher.create();
+
+        StepVerifier.create(MicroBatchFlux.of(source.flux(), 10, Duration.ofSeconds(1), timer, 2))
+                .then(() -> source.next(1, 2))
+                .expectNoEvent(Duration.ZERO)
+                .then(() -> timer.advanceTimeBy(Duration.ofSeconds(1)))
+                .expectNext(Arrays.asList(1, 2))
+                .then(() -> source.next(3))
+                .then(() -> timer.advanceTimeBy(Duration.ofSeconds(1)))
+                .expectNext(Arrays.asList(3))
+                .then(source::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    void keepsFillingExpiredBatchUntilDemand() {
+        TestPublisher<Integer> source = TestPublisher.create();
+
+        StepVerifier.create(MicroBatchFlux.of(source.flux(), 3, Duration.ofSeconds(1), timer, 2), 0)
+                .then(() -> source.next(1))
+                .then(() -> timer.advanceTimeBy(Duration.ofSeconds(1)))
+                .then(() -> source.next(2))
+                .expectNoEvent(Duration.ZERO)
+                .thenRequest(1)
+                .expectNext(Arrays.asList(1, 2))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void cancelsUpstreamMidStream() {
+        TestPublisher<Integer> source = TestPublisher.create();
+
+        StepVerifier.create(MicroBatchFlux.of(source.flux(), 2, Duration.ofSeconds(1), timer, 2))
+                .then(() -> source.next(1, 2, 3))
+                .expectNext(Arrays.asList(1, 2))
+                .thenCancel()
+                .verify();
+
+        source.assertCancelled();
+    }
+
+    @Test
+    void propagatesErrorAndDropsPendingBatch() {
+        TestPublisher<Integer> source = TestPublisher.create();
+
+        StepVerifier.create(MicroBatchFlux.of(source.flux(), 2, Duration.ofSeconds(1), timer, 2))
+                .then(() -> source.next(1))
+                .then(() -> source.error(new IllegalStateException("boom")))
+                .verifyErrorMessage("boom");
+    }
+
+    @Test
+    void completesEmptySourceWithoutBatch() {
+        StepVerifier.create(MicroBatchFlux.of(Flux.<Integer>empty(), 2, Duration.ofSeconds(1), timer, 2))
+                .verifyComplete();
+    }
+
+    @Test
+    void rejectsNonPositiveSizes() {
+        assertThatThrownBy(() -> MicroBatchFlux.of(Flux.range(1, 3), 0, Duration.ofSeconds(1), timer, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
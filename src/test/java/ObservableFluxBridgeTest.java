@@ -0,0 +1,141 @@
+import java.time.Duration;
+
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservableFluxBridgeTest {
+
+    @Test
+    void emitsScalarSource() {
+        StepVerifier.create(ObservableFluxBridge.from(Observable.just(1)))
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void pullsFusedSourceOnlyAsRequested() {
+        StepVerifier.create(ObservableFluxBridge.from(Observable.range(1, 10)), 3)
+                .expectNext(1, 2, 3)
+                .expectNoEvent(Duration.ZERO)
+                .thenRequest(7)
+                .expectNext(4, 5, 6, 7, 8, 9, 10)
+                .verifyComplete();
+    }
+
+    @Test
+    void queuesPushedItemsUntilRequested() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+
+        StepVerifier.create(ObservableFluxBridge.from(subject), 1)
+                .then(() -> {
+                    subject.onNext(1);
+                    subject.onNext(2);
+                    subject.onNext(3);
+                })
+                .expectNext(1)
+                .expectNoEvent(Duration.ZERO)
+                .thenRequest(2)
+                .expectNext(2, 3)
+                .then(subject::onComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    void disposesObservableOnCancel() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+
+        StepVerifier.create(ObservableFluxBridge.from(subject))
+                .then(() -> subject.onNext(1))
+                .expectNext(1)
+                .thenCancel()
+                .verify();
+
+        assertThat(subject.hasObservers()).isFalse();
+    }
+
+    @Test
+    void propagatesPushedErrorAfterQueuedItems() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+
+        StepVerifier.create(ObservableFluxBridge.from(subject), 0)
+                .then(() -> {
+                    subject.onNext(1);
+                    subject.onError(new IllegalStateException("boom"));
+                })
+                .thenRequest(1)
+                .expectNext(1)
+                .verifyErrorMessage("boom");
+    }
+
+    @Test
+    void propagatesFusedPollError() {
+        Observable<Integer> source = Observable.range(1, 3).map(i -> {
+            if (i == 2) {
+                throw new IllegalStateException("boom");
+            }
+            return i;
+        });
+
+        StepVerifier.create(ObservableFluxBridge.from(source))
+                .expectNext(1)
+                .verifyErrorMessage("boom");
+    }
+
+    @Test
+    void completesEmptySources() {
+        StepVerifier.create(ObservableFluxBridge.from(Observable.<Integer>empty()))
+                .verifyComplete();
+        StepVerifier.create(ObservableFluxBridge.from(Observable.fromArray(new Integer[0])))
+                .verifyComplete();
+        PublishSubject<Integer> subject = PublishSubject.create();
+        StepVerifier.create(ObservableFluxBridge.from(subject))
+                .then(subject::onComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    void dropsOldestBeyondMaxBuffer() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        ObservableFluxBridge.Metrics metrics = new ObservableFluxBridge.Metrics();
+
+        StepVerifier.create(ObservableFluxBridge.from(subject, 2, ObservableFluxBridge.OverflowPolicy.DROP_OLDEST,
+                metrics), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 4; i++) {
+                        subject.onNext(i);
+                    }
+                    subject.onComplete();
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(3, 4)
+                .verifyComplete();
+
+        assertThat(metrics.droppedCount()).isEqualTo(2);
+        assertThat(metrics.peakQueueDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void failsOnOverflowAfterPendingItems() {
+        PublishSubject<Integer> subject = PublishSubject.create();
+        ObservableFluxBridge.Metrics metrics = new ObservableFluxBridge.Metrics();
+
+        StepVerifier.create(ObservableFluxBridge.from(subject, 2, ObservableFluxBridge.OverflowPolicy.FAIL,
+                metrics), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 3; i++) {
+                        subject.onNext(i);
+                    }
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(1, 2)
+                .verifyErrorMatches(Exceptions::isOverflow);
+
+        assertThat(metrics.overflowErrorCount()).isEqualTo(1);
+        assertThat(subject.hasObservers()).isFalse();
+    }
+}
@@ -0,0 +1,31 @@
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelRailsTest {
+
+    @Test
+    void keepsSourceOrderWhenMappingToAnotherType() {
+        List<String> expected = IntStream.range(0, 1_000).mapToObj(i -> "#" + i).collect(Collectors.toList());
+
+        StepVerifier.create(ParallelRails.map(Flux.range(0, 1_000), i -> "#" + i, 4, Schedulers.parallel(), true)
+                .collectList())
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    @Test
+    void emitsEveryResultUnordered() {
+        StepVerifier.create(ParallelRails.map(Flux.range(0, 1_000), i -> "#" + i, 4, Schedulers.parallel(), false)
+                .collectList())
+                .assertNext(results -> assertThat(results).hasSize(1_000).contains("#0", "#999"))
+                .verifyComplete();
+    }
+}
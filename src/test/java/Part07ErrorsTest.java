@@ -0,0 +1,56 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Part07ErrorsTest {
+
+    private final Part07Errors part07 = new Part07Errors();
+
+    private final Flux<User> users = Flux.just(new User("Walter", "White", "wwhite"), User.SAUL,
+            new User("jesse", "pinkman", "jpinkman"));
+
+    @Test
+    void isolatesRejectedUsersAndCapitalizesTheOthers() {
+        DeadLetterChannel<User> deadLetters = new DeadLetterChannel<>(16);
+        List<DeadLetterChannel.DeadLetter<User>> rejected = new ArrayList<>();
+        deadLetters.flux().subscribe(rejected::add);
+
+        StepVerifier.create(part07.capitalizeManyIsolated(users, deadLetters))
+                .expectNextMatches(user("WALTER", "WHITE", "WWHITE"))
+                .expectNextMatches(user("JESSE", "PINKMAN", "JPINKMAN"))
+                .verifyComplete();
+
+        assertThat(rejected).hasSize(1);
+        assertThat(rejected.get(0).element()).isSameAs(User.SAUL);
+        assertThat(rejected.get(0).cause()).isInstanceOf(Part07Errors.GetOutOfHereException.class);
+        assertThat(deadLetters.processed()).isEqualTo(2);
+        assertThat(deadLetters.failed()).isEqualTo(1);
+    }
+
+    @Test
+    void capitalizesLikeEveryOtherVariant() {
+        StepVerifier.create(part07.capitalizeManySkippingRejected(users, user -> { }))
+                .expectNextMatches(user("WALTER", "WHITE", "WWHITE"))
+                .expectNextMatches(user("JESSE", "PINKMAN", "JPINKMAN"))
+                .verifyComplete();
+        StepVerifier.create(part07.capitalizeManyResults(users).filter(Result::isOk).map(Result::value))
+                .expectNextMatches(user("WALTER", "WHITE", "WWHITE"))
+                .expectNextMatches(user("JESSE", "PINKMAN", "JPINKMAN"))
+                .verifyComplete();
+        StepVerifier.create(part07.capitalizeManyParallel(users.filter(user -> user != User.SAUL), 2, true))
+                .expectNextMatches(user("WALTER", "WHITE", "WWHITE"))
+                .expectNextMatches(user("JESSE", "PINKMAN", "JPINKMAN"))
+                .verifyComplete();
+    }
+
+    private static Predicate<User> user(String firstname, String lastname, String username) {
+        return user -> user.getFirstname().equals(firstname) && user.getLastname().equals(lastname)
+                && user.getUsername().equals(username);
+    }
+}
@@ -0,0 +1,82 @@
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveCacheTest {
+
+    private final Map<String, MonoProcessor<String>> backend = new HashMap<>();
+
+    private final ReactiveCache<String, String> cache = new ReactiveCache<>(16, Duration.ofMinutes(1),
+            key -> backend.computeIfAbsent(key, k -> MonoProcessor.create()));
+
+    @Test
+    void coalescesConcurrentMissesAndCachesTheValue() {
+        Mono<String> first = cache.get("a");
+        Mono<String> second = cache.get("a");
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> backend.get("a").onNext("A"))
+                .expectNextMatches(values -> values.getT1().equals("A") && values.getT2().equals("A"))
+                .verifyComplete();
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(cache.coalesced()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotCacheLoadSupersededByWriteOfSameKey() {
+        StepVerifier.create(cache.get("a"))
+                .then(() -> cache.put("a", "fresh"))
+                .then(() -> backend.get("a").onNext("stale"))
+                .expectNext("stale")
+                .verifyComplete();
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("fresh");
+    }
+
+    @Test
+    void doesNotCacheLoadSupersededByInvalidation() {
+        StepVerifier.create(cache.get("a"))
+                .then(() -> cache.invalidate("a"))
+                .then(() -> backend.get("a").onNext("stale"))
+                .expectNext("stale")
+                .verifyComplete();
+
+        assertThat(cache.getIfPresent("a")).isNull();
+    }
+
+    @Test
+    void cachesLoadWhileOtherKeysAreWritten() {
+        StepVerifier.create(cache.get("a"))
+                .then(() -> {
+                    cache.put("b", "B");
+                    cache.invalidate("c");
+                })
+                .then(() -> backend.get("a").onNext("A"))
+                .expectNext("A")
+                .verifyComplete();
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+        assertThat(cache.getIfPresent("b")).isEqualTo("B");
+    }
+
+    @Test
+    void lookupAfterWriteDoesNotJoinSupersededLoad() {
+        StepVerifier.create(cache.get("a"))
+                .then(() -> {
+                    cache.put("a", "fresh");
+                    StepVerifier.create(cache.get("a")).expectNext("fresh").verifyComplete();
+                })
+                .then(() -> backend.get("a").onNext("stale"))
+                .expectNext("stale")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,35 @@
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveToBlockingBridgeTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ReactiveToBlockingBridge bridge =
+            new ReactiveToBlockingBridge(ReactiveToBlockingBridge.NonBlockingThreadPolicy.FAIL);
+
+    @Test
+    void iteratesInBatches() {
+        assertThat(bridge.toIterable(Flux.range(1, 10), TIMEOUT, 4)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        try (Stream<Integer> stream = bridge.toStream(Flux.range(1, 10), TIMEOUT, 1)) {
+            assertThat(stream.collect(Collectors.toList())).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveBatchSizeUpFront() {
+        assertThatThrownBy(() -> bridge.toIterable(Flux.range(1, 3), TIMEOUT, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("batchSize must be positive, got 0");
+        assertThatThrownBy(() -> bridge.toStream(Flux.range(1, 3), TIMEOUT, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("batchSize must be positive, got -1");
+    }
+}
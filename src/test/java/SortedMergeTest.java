@@ -0,0 +1,122 @@
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortedMergeTest {
+
+    /**
+     * Orders "3b" by its digit only, so that the letter tells which source an item came from.
+     */
+    private static final Comparator<String> BY_KEY = Comparator.comparing(item -> item.charAt(0));
+
+    @Test
+    void mergesSortedSources() {
+        List<Flux<Integer>> sources = Arrays.asList(Flux.just(1, 4, 7), Flux.just(2, 5, 8), Flux.just(3, 6, 9));
+
+        StepVerifier.create(new SortedMerge<>(sources, Comparator.<Integer>naturalOrder(), 2))
+                .expectNext(1, 2, 3, 4, 5, 6, 7, 8, 9)
+                .verifyComplete();
+    }
+
+    @Test
+    void breaksTiesBySourceOrder() {
+        List<Flux<String>> sources = Arrays.asList(Flux.just("1a", "2a", "2a'"), Flux.just("1b", "2b"),
+                Flux.just("0c", "1c", "2c"));
+
+        StepVerifier.create(new SortedMerge<>(sources, BY_KEY, 2))
+                .expectNext("0c", "1a", "1b", "1c", "2a", "2a'", "2b", "2c")
+                .verifyComplete();
+    }
+
+    @Test
+    void breaksTiesBySourceOrderWhateverTheArrivalOrder() {
+        TestPublisher<String> first = TestPublisher.create();
+        TestPublisher<String> second = TestPublisher.create();
+
+        StepVerifier.create(new SortedMerge<>(Arrays.asList(first.flux(), second.flux()), BY_KEY, 4))
+                .then(() -> second.next("1b"))
+                .expectNoEvent(Duration.ZERO)
+                .then(() -> first.next("1a"))
+                .expectNext("1a")
+                .then(first::complete)
+                .expectNext("1b")
+                .then(second::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    void boundsEachSourceByPrefetchUnderBoundedRequest() {
+        List<Long> firstRequests = new CopyOnWriteArrayList<>();
+        List<Long> secondRequests = new CopyOnWriteArrayList<>();
+        List<Flux<Integer>> sources = Arrays.asList(
+                Flux.range(0, 10).map(i -> 2 * i).doOnRequest(firstRequests::add),
+                Flux.range(0, 10).map(i -> 2 * i + 1).doOnRequest(secondRequests::add));
+
+        StepVerifier.create(new SortedMerge<>(sources, Comparator.<Integer>naturalOrder(), 4), 3)
+                .expectNext(0, 1, 2)
+                .expectNoEvent(Duration.ZERO)
+                .thenRequest(17)
+                .expectNextCount(17)
+                .verifyComplete();
+
+        assertThat(firstRequests.get(0)).isEqualTo(4);
+        assertThat(firstRequests).allMatch(n -> n <= 4);
+        assertThat(secondRequests).allMatch(n -> n <= 4);
+    }
+
+    @Test
+    void cancelsEverySourceMidStream() {
+        TestPublisher<Integer> first = TestPublisher.create();
+        TestPublisher<Integer> second = TestPublisher.create();
+
+        StepVerifier.create(new SortedMerge<>(Arrays.asList(first.flux(), second.flux()),
+                Comparator.<Integer>naturalOrder(), 4))
+                .then(() -> {
+                    first.next(1);
+                    second.next(2);
+                })
+                .expectNext(1)
+                .thenCancel()
+                .verify();
+
+        first.assertCancelled();
+        second.assertCancelled();
+    }
+
+    @Test
+    void propagatesFirstErrorRightAwayAndCancelsTheOthers() {
+        TestPublisher<Integer> first = TestPublisher.create();
+        TestPublisher<Integer> second = TestPublisher.create();
+
+        StepVerifier.create(new SortedMerge<>(Arrays.asList(first.flux(), second.flux()),
+                Comparator.<Integer>naturalOrder(), 4))
+                .then(() -> {
+                    first.next(1);
+                    second.error(new IllegalStateException("boom"));
+                })
+                .verifyErrorMessage("boom");
+
+        first.assertCancelled();
+    }
+
+    @Test
+    void skipsEmptySources() {
+        List<Flux<Integer>> sources = Arrays.asList(Flux.empty(), Flux.just(1, 3), Flux.empty(), Flux.just(2));
+
+        StepVerifier.create(new SortedMerge<>(sources, Comparator.<Integer>naturalOrder(), 2))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+        StepVerifier.create(new SortedMerge<>(Arrays.<Flux<Integer>>asList(Flux.empty(), Flux.empty()),
+                Comparator.<Integer>naturalOrder(), 2))
+                .verifyComplete();
+    }
+}
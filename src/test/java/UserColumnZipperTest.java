@@ -0,0 +1,98 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserColumnZipperTest {
+
+    @Test
+    void zipsColumnsIntoUsers() {
+        StepVerifier.create(UserColumnZipper.zipColumns(Flux.just("swhite", "jpinkman"), Flux.just("Skyler", "Jesse"),
+                Flux.just("White", "Pinkman")))
+                .expectNextMatches(user("swhite", "Skyler", "White"))
+                .expectNextMatches(user("jpinkman", "Jesse", "Pinkman"))
+                .verifyComplete();
+    }
+
+    @Test
+    void requestsEachColumnWithinItsPrefetch() {
+        List<Long> usernameRequests = new CopyOnWriteArrayList<>();
+        List<Long> lastnameRequests = new CopyOnWriteArrayList<>();
+        UserColumnZipper.Metrics metrics = new UserColumnZipper.Metrics();
+        Flux<String> usernames = Flux.range(0, 10).map(i -> "user" + i).doOnRequest(usernameRequests::add);
+        Flux<String> firstnames = Flux.range(0, 10).map(i -> "first" + i);
+        Flux<String> lastnames = Flux.range(0, 10).map(i -> "last" + i).doOnRequest(lastnameRequests::add);
+
+        StepVerifier.create(new UserColumnZipper(usernames, firstnames, lastnames, 8, 8, 2, metrics), 3)
+                .expectNextMatches(user("user0", "first0", "last0"))
+                .expectNextCount(2)
+                .thenRequest(7)
+                .expectNextCount(7)
+                .verifyComplete();
+
+        assertThat(usernameRequests.get(0)).isEqualTo(8);
+        assertThat(lastnameRequests.get(0)).isEqualTo(2);
+        assertThat(lastnameRequests).allMatch(n -> n <= 2);
+        assertThat(metrics.rows()).isEqualTo(10);
+        assertThat(metrics.peakDepth(UserColumnZipper.LASTNAME)).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void cancelsEveryColumnMidStream() {
+        TestPublisher<String> usernames = TestPublisher.create();
+        TestPublisher<String> firstnames = TestPublisher.create();
+        TestPublisher<String> lastnames = TestPublisher.create();
+
+        StepVerifier.create(UserColumnZipper.zipColumns(usernames, firstnames, lastnames))
+                .then(() -> {
+                    usernames.next("swhite");
+                    firstnames.next("Skyler");
+                    lastnames.next("White");
+                })
+                .expectNextMatches(user("swhite", "Skyler", "White"))
+                .thenCancel()
+                .verify();
+
+        usernames.assertCancelled();
+        firstnames.assertCancelled();
+        lastnames.assertCancelled();
+    }
+
+    @Test
+    void failsOnFirstColumnErrorAndCancelsTheOthers() {
+        TestPublisher<String> usernames = TestPublisher.create();
+        TestPublisher<String> firstnames = TestPublisher.create();
+        TestPublisher<String> lastnames = TestPublisher.create();
+
+        StepVerifier.create(UserColumnZipper.zipColumns(usernames, firstnames, lastnames))
+                .then(() -> {
+                    usernames.next("swhite");
+                    firstnames.error(new IllegalStateException("boom"));
+                })
+                .verifyErrorMessage("boom");
+
+        usernames.assertCancelled();
+        lastnames.assertCancelled();
+    }
+
+    @Test
+    void completesAsSoonAsOneColumnIsExhausted() {
+        TestPublisher<String> usernames = TestPublisher.create();
+
+        StepVerifier.create(UserColumnZipper.zipColumns(usernames, Flux.empty(), Flux.just("White")))
+                .verifyComplete();
+
+        usernames.assertCancelled();
+    }
+
+    private static Predicate<User> user(String username, String firstname, String lastname) {
+        return user -> user.getUsername().equals(username) && user.getFirstname().equals(firstname)
+                && user.getLastname().equals(lastname);
+    }
+}